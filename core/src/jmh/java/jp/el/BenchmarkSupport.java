@@ -0,0 +1,43 @@
+package jp.el;
+
+import java.nio.charset.StandardCharsets;
+
+// ベンチマーク共通の定数とテストデータ生成
+final class BenchmarkSupport {
+    static final long SEED = 20260101L;
+
+    private BenchmarkSupport() {}
+
+    // 47都道府県分の MultiPolygon を持つ GeoJSON を生成する
+    // (リポジトリに japan.geojson は含まれないため、実データ相当の頂点数で合成する)
+    static byte[] syntheticJapanGeoJson(int verticesPerRing, int ringsPerPrefecture) {
+        StringBuilder sb = new StringBuilder(47 * ringsPerPrefecture * verticesPerRing * 40);
+        sb.append("{\"type\":\"FeatureCollection\",\"features\":[");
+        int count = ElectionData.getPrefectureCount();
+        for (int p = 0; p < count; p++) {
+            if (p > 0) sb.append(',');
+            double cx = 129.0 + 16.0 * p / count;
+            double cy = 31.0 + 14.0 * p / count;
+            sb.append("{\"type\":\"Feature\",\"properties\":{\"nam_ja\":\"")
+              .append(ElectionData.getPrefectureName(p))
+              .append("\"},\"geometry\":{\"type\":\"MultiPolygon\",\"coordinates\":[");
+            for (int r = 0; r < ringsPerPrefecture; r++) {
+                if (r > 0) sb.append(',');
+                sb.append("[[");
+                double radius = 0.4 / (r + 1);
+                for (int v = 0; v <= verticesPerRing; v++) {
+                    double a = 2 * Math.PI * (v % verticesPerRing) / verticesPerRing;
+                    // 海岸線らしく半径を揺らす
+                    double rr = radius * (1.0 + 0.1 * Math.sin(a * 37) + 0.05 * Math.sin(a * 211));
+                    if (v > 0) sb.append(',');
+                    sb.append('[').append(cx + r * 0.5 + rr * Math.cos(a)).append(',')
+                      .append(cy + rr * Math.sin(a)).append(']');
+                }
+                sb.append("]]");
+            }
+            sb.append("]}}");
+        }
+        sb.append("]}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,71 @@
+package jp.el;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// 協力度計算と連立形成のベンチマーク
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoalitionBenchmark {
+    private List<Party> parties;
+    private List<Party> sortedBySeats;
+    private CooperationMatrix cooperation;
+    private int totalSeats;
+    private int[] seatsById;
+    private CoalitionSolver solver;
+
+    @Setup
+    public void setup() {
+        ElectionData data = new ElectionData(BenchmarkSupport.SEED);
+        ElectionTable table = data.getTable();
+        int[] seats = new int[table.getPartyCount()];
+        new SimulationEngine(data).runElection(new SplittableRandom(BenchmarkSupport.SEED), table.getVotes(), seats);
+        for (int p = 0; p < seats.length; p++) table.getParty(p).setSeats(seats[p]);
+
+        parties = table.getPartyList();
+        cooperation = data.getCooperationMatrix();
+        sortedBySeats = new ArrayList<>(parties);
+        sortedBySeats.sort(Comparator.comparingInt(Party::getSeats).reversed());
+        totalSeats = table.getDistrictCount() + ProportionalBlocks.TOTAL_SEATS;
+        seatsById = new int[parties.size()];
+        for (Party p : parties) seatsById[p.getId()] = p.getSeats();
+        solver = new CoalitionSolver(parties, cooperation, 5);
+    }
+
+    // 全政党ペアの協力度を毎回計算する
+    @Benchmark
+    public void calculateCooperationAllPairs(Blackhole bh) {
+        for (Party a : parties) {
+            for (Party b : parties) bh.consume(a.calculateCooperation(b));
+        }
+    }
+
+    // 計算済みマトリクスの参照
+    @Benchmark
+    public void cooperationMatrixAllPairs(Blackhole bh) {
+        for (Party a : parties) {
+            for (Party b : parties) bh.consume(cooperation.get(a, b));
+        }
+    }
+
+    @Benchmark
+    public List<Party> formCoalition() {
+        return CoalitionBuilder.formCoalition(sortedBySeats, totalSeats, cooperation);
+    }
+
+    // 最小勝利連合の厳密探索 (上位5件)。モンテカルロの試行ごとに呼ぶ形
+    @Benchmark
+    public int solveTopCoalitions() {
+        return solver.solve(seatsById, totalSeats / 2 + 1);
+    }
+}
@@ -0,0 +1,40 @@
+package jp.el;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// District.getWinner (全289選挙区分) のベンチマーク
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DistrictBenchmark {
+    private ElectionTable table;
+    private List<District> districts;
+
+    @Setup
+    public void setup() {
+        ElectionData data = new ElectionData(BenchmarkSupport.SEED);
+        table = data.getTable();
+        districts = data.getDistricts();
+        int[] seats = new int[table.getPartyCount()];
+        new SimulationEngine(data).runElection(new SplittableRandom(BenchmarkSupport.SEED), table.getVotes(), seats);
+    }
+
+    @Benchmark
+    public void getWinnerViews(Blackhole bh) {
+        for (District d : districts) bh.consume(d.getWinner());
+    }
+
+    @Benchmark
+    public void getWinnerTable(Blackhole bh) {
+        int[] votes = table.getVotes();
+        for (int d = 0; d < table.getDistrictCount(); d++) bh.consume(table.getWinner(d, votes));
+    }
+}
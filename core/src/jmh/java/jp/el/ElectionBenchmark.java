@@ -0,0 +1,76 @@
+package jp.el;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// 選挙1回分 (ResultView.runSimulation 相当) とモンテカルロ一括実行のベンチマーク
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ElectionBenchmark {
+    private ElectionData data;
+    private SimulationEngine engine;
+
+    @Setup
+    public void setup() {
+        data = new ElectionData(BenchmarkSupport.SEED); // 289選挙区
+        engine = new SimulationEngine(data);
+    }
+
+    @State(Scope.Thread)
+    public static class Buffers {
+        int[] votes;
+        int[] seats;
+        SplittableRandom rand;
+        ProportionalEngine proportional;
+
+        @Setup
+        public void setup(ElectionBenchmark bench) {
+            votes = bench.data.getTable().newVoteBuffer();
+            seats = new int[bench.data.getTable().getPartyCount()];
+            rand = new SplittableRandom(BenchmarkSupport.SEED);
+            proportional = new ProportionalEngine(bench.data.getTable());
+            bench.engine.runElection(rand, votes, seats);
+        }
+    }
+
+    @Benchmark
+    public int[] singleElection(Buffers b) {
+        engine.runElection(b.rand, b.votes, b.seats);
+        return b.seats;
+    }
+
+    // 比例代表の集計とドント式の配分 (11ブロック・176議席、試行ごとに1回)
+    @Benchmark
+    public int[] proportionalAllocation(Buffers b) {
+        b.proportional.allocate(b.votes, b.seats);
+        return b.seats;
+    }
+
+    // 基礎スコア表の再コンパイル (データ変更時のコスト)
+    @Benchmark
+    public ScoreTable compileScoreTable() {
+        return ScoreTable.compile(data);
+    }
+
+    // 多数試行のスループット (並列実行)
+    @State(Scope.Benchmark)
+    public static class MonteCarlo {
+        @Param({"1000", "10000"})
+        int trials;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, time = 5)
+    @Measurement(iterations = 3, time = 5)
+    public void monteCarlo(MonteCarlo mc, Blackhole bh) {
+        bh.consume(engine.run(mc.trials, BenchmarkSupport.SEED));
+    }
+}
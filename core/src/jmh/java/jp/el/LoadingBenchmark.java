@@ -0,0 +1,54 @@
+package jp.el;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 起動時の読み込み処理 (地図と ElectionData) のベンチマーク
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class LoadingBenchmark {
+    // 1都道府県あたりの頂点数 (リング4本の合計)。20000 で実データ (数十MB) 相当
+    @Param({"2000", "20000"})
+    int verticesPerPrefecture;
+
+    private byte[] geoJson;
+    private MapGeometry geometry;
+    private long seed = BenchmarkSupport.SEED;
+
+    @Setup
+    public void setup() {
+        geoJson = BenchmarkSupport.syntheticJapanGeoJson(verticesPerPrefecture / 4, 4);
+        geometry = GeoJsonLoader.loadGeometry(new ByteArrayInputStream(geoJson));
+    }
+
+    // 頂点配列の読み込みのみ
+    @Benchmark
+    public MapGeometry loadGeometry() {
+        return GeoJsonLoader.loadGeometry(new ByteArrayInputStream(geoJson));
+    }
+
+    // SVGパス文字列まで (JapanMapView が使う形)
+    @Benchmark
+    public Map<String, String> loadJapanMap() {
+        return GeoJsonLoader.loadJapanMap(new ByteArrayInputStream(geoJson));
+    }
+
+    // 詳細度レベルの生成 (Douglas-Peucker) と、実際に表示するレベルのSVGパス化
+    @Benchmark
+    public String[] buildLod() {
+        MapLod lod = MapLod.build(geometry, MapLod.DEFAULT_TOLERANCES);
+        return lod.getSvgPaths(lod.levelForScale(1.0));
+    }
+
+    @Benchmark
+    public ElectionData electionDataConstruction() {
+        return new ElectionData(seed++);
+    }
+}
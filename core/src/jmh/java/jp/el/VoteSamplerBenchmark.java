@@ -0,0 +1,38 @@
+package jp.el;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// 選挙区1つ分の票数サンプリング。有権者数を実際の小選挙区 (約40万人) まで増やしてもコストが変わらないことを確認する
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VoteSamplerBenchmark {
+    @Param({"3000", "400000"})
+    int voters;
+
+    @Param({"2", "4"})
+    int candidates;
+
+    private final SplittableRandom rand = new SplittableRandom(BenchmarkSupport.SEED);
+    private int[] weights;
+    private int[] votes;
+
+    @Setup
+    public void setup() {
+        weights = new int[candidates];
+        for (int i = 0; i < candidates; i++) weights[i] = 300 + 150 * i;
+        votes = new int[candidates];
+    }
+
+    @Benchmark
+    public int[] multinomial() {
+        VoteSampler.sample(rand, voters, weights, candidates, votes);
+        return votes;
+    }
+}
@@ -0,0 +1,21 @@
+package jp.el;
+
+// ElectionTable の候補者1人分へのビュー
+public class Candidate {
+    private final ElectionTable table;
+    private final int index;
+
+    Candidate(ElectionTable table, int index) {
+        this.table = table;
+        this.index = index;
+    }
+
+    public void addVote() { table.getVotes()[index]++; }
+    public void addVotes(int count) { table.getVotes()[index] += count; }
+    public void setVotes(int votes) { table.getVotes()[index] = votes; }
+    public void resetVotes() { table.getVotes()[index] = 0; }
+    public String getName() { return table.getCandidateName(index); }
+    public Party getParty() { return table.getParty(table.getCandidateParty()[index]); }
+    public int getVotes() { return table.getVotes()[index]; }
+    public int getIndex() { return index; }
+}
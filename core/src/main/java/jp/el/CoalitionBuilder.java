@@ -0,0 +1,29 @@
+package jp.el;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// 連立政権の組み合わせを決めるロジック (PartyAnalysisView から分離、UIに依存しない)
+public class CoalitionBuilder {
+
+    private CoalitionBuilder() {}
+
+    // ★ 連立形成ロジック (無所属除外対応版)
+    // 第1党は必ず入り、第1党を含む最小勝利連合のうち協力度の一番高いものを CoalitionSolver で厳密に選ぶ。
+    // 第1党が「無所属」なら連立を組まない (単独扱い)。過半数を作れない場合は第1党の単独 (少数与党)
+    public static List<Party> formCoalition(List<Party> sortedParties, int totalSeats, CooperationMatrix cooperation) {
+        if (sortedParties.isEmpty()) return new ArrayList<>();
+
+        // id 順の政党と議席数
+        List<Party> byId = new ArrayList<>(Arrays.asList(new Party[cooperation.size()]));
+        int[] seats = new int[cooperation.size()];
+        for (Party p : sortedParties) {
+            byId.set(p.getId(), p);
+            seats[p.getId()] = p.getSeats();
+        }
+
+        CoalitionSolver solver = new CoalitionSolver(byId, cooperation, 1);
+        return CoalitionSolver.toParties(solver.formGovernment(seats, totalSeats / 2 + 1), byId);
+    }
+}
@@ -0,0 +1,179 @@
+package jp.el;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 最小勝利連合の厳密探索
+// 政党の組み合わせをビットマスク (bit = Party.getId()) で列挙し、議席の多い順に足していく。
+// 残りを全部足しても過半数に届かない枝と、協力度が MIN_COOPERATION 未満のペアを含む枝は打ち切る。
+// 過半数に届いた時点で打ち切るので、見つかる連合はどれも「1党でも抜けると過半数割れ」になる。
+// 順位は 平均協力度 (ペアの平均、単独は100) の高い順 → 党数の少ない順 → 議席の少ない順。
+// solve(seats, majority, required) は required の党を必ず含む連合だけを探す (政権は第1党を軸に作るので)。
+//
+// 探索用の配列はすべてコンストラクタで確保するので solve() はメモリ確保をしない。
+// モンテカルロの試行ごとに呼べるが、インスタンスはスレッド間で共有しないこと。
+public class CoalitionSolver {
+    // これ未満の協力度のペアは同じ連立に入らない
+    public static final double MIN_COOPERATION = 30.0;
+    // 連立に加わらない政党
+    private static final String INDEPENDENT = "無所属";
+
+    private final int n;
+    private final double[] cooperation; // [i * n + j]
+    private final boolean[] eligible;
+    private final int k;
+
+    // 作業用
+    private final int[] order;   // 探索対象の政党 (議席の多い順)
+    private final int[] suffix;  // order[i..] の議席合計
+    private int candidates;
+    private int[] seats;
+    private int majority;
+
+    // 結果 (上位 k 件、良い順)
+    private final long[] resultMask;
+    private final double[] resultScore;
+    private final int[] resultSeats;
+    private final int[] resultSize;
+    private int found;
+
+    // parties は id 順 (CooperationMatrix と同じ並び) であること
+    public CoalitionSolver(List<Party> parties, CooperationMatrix matrix, int k) {
+        if (parties.size() > 63) throw new IllegalArgumentException("too many parties: " + parties.size());
+        if (k <= 0) throw new IllegalArgumentException("k must be positive: " + k);
+        this.n = parties.size();
+        this.k = k;
+        this.cooperation = new double[n * n];
+        this.eligible = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            Party party = parties.get(i);
+            eligible[i] = party != null && !party.getName().equals(INDEPENDENT);
+            for (int j = 0; j < n; j++) cooperation[i * n + j] = matrix.get(i, j);
+        }
+        this.order = new int[n];
+        this.suffix = new int[n + 1];
+        this.resultMask = new long[k];
+        this.resultScore = new double[k];
+        this.resultSeats = new int[k];
+        this.resultSize = new int[k];
+    }
+
+    // seats は id 順の議席数。見つかった連合の数 (最大 k) を返す。0 なら過半数を作れない
+    public int solve(int[] seats, int majority) {
+        return solve(seats, majority, -1);
+    }
+
+    // required (id) の党を必ず含む連合だけを探す版 (-1 なら制限なし)
+    public int solve(int[] seats, int majority, int required) {
+        this.seats = seats;
+        this.majority = majority;
+        this.found = 0;
+        if (required >= 0 && (!eligible[required] || seats[required] <= 0)) return 0;
+
+        // 議席のある政党を議席の多い順に並べる (政党数は少ないので挿入ソート)
+        candidates = 0;
+        for (int p = 0; p < n; p++) {
+            if (!eligible[p] || seats[p] <= 0 || p == required) continue;
+            int i = candidates++;
+            while (i > 0 && seats[order[i - 1]] < seats[p]) {
+                order[i] = order[i - 1];
+                i--;
+            }
+            order[i] = p;
+        }
+        suffix[candidates] = 0;
+        for (int i = candidates - 1; i >= 0; i--) suffix[i] = suffix[i + 1] + seats[order[i]];
+
+        if (required < 0) {
+            search(0, 0L, 0, 0.0, 0);
+        } else if (seats[required] >= majority) {
+            offer(1L << required, seats[required], 1, 0.0); // 単独過半数
+        } else {
+            search(0, 1L << required, seats[required], 0.0, 1);
+        }
+        return found;
+    }
+
+    private void search(int start, long mask, int total, double cooperationSum, int size) {
+        for (int i = start; i < candidates; i++) {
+            // 残りを全部足しても届かない (order は議席順なので以降も同じ)
+            if (total + suffix[i] < majority) return;
+
+            int p = order[i];
+            double added = 0;
+            boolean compatible = true;
+            for (long m = mask; m != 0; m &= m - 1) {
+                double c = cooperation[p * n + Long.numberOfTrailingZeros(m)];
+                if (c < MIN_COOPERATION) {
+                    compatible = false;
+                    break;
+                }
+                added += c;
+            }
+            if (!compatible) continue;
+
+            int nextTotal = total + seats[p];
+            if (nextTotal >= majority) {
+                // ここで過半数に届いた連合は最小勝利連合 (これ以上は足さない)
+                offer(mask | (1L << p), nextTotal, size + 1, cooperationSum + added);
+            } else {
+                search(i + 1, mask | (1L << p), nextTotal, cooperationSum + added, size + 1);
+            }
+        }
+    }
+
+    private void offer(long mask, int total, int size, double cooperationSum) {
+        double score = size == 1 ? 100.0 : cooperationSum / (size * (size - 1) / 2);
+        int pos = found;
+        while (pos > 0 && better(score, size, total, pos - 1)) pos--;
+        if (pos >= k) return;
+
+        int last = Math.min(found, k - 1);
+        for (int i = last; i > pos; i--) {
+            resultMask[i] = resultMask[i - 1];
+            resultScore[i] = resultScore[i - 1];
+            resultSeats[i] = resultSeats[i - 1];
+            resultSize[i] = resultSize[i - 1];
+        }
+        resultMask[pos] = mask;
+        resultScore[pos] = score;
+        resultSeats[pos] = total;
+        resultSize[pos] = size;
+        if (found < k) found++;
+    }
+
+    private boolean better(double score, int size, int total, int i) {
+        if (score != resultScore[i]) return score > resultScore[i];
+        if (size != resultSize[i]) return size < resultSize[i];
+        return total < resultSeats[i];
+    }
+
+    // 政権の形 (ビットマスク)。CoalitionBuilder.formCoalition と同じ規則:
+    // 第1党は必ず政権に入る。第1党が無所属ならその単独、第1党を含む協力できる過半数がなければ第1党の単独 (少数与党)、
+    // それ以外は第1党を含む最小勝利連合の1位。議席のある政党がなければ 0
+    public long formGovernment(int[] seats, int majority) {
+        int leader = -1;
+        for (int p = 0; p < n; p++) {
+            if (seats[p] > 0 && (leader < 0 || seats[p] > seats[leader])) leader = p;
+        }
+        if (leader < 0) return 0L;
+        if (!eligible[leader] || solve(seats, majority, leader) == 0) return 1L << leader;
+        return resultMask[0];
+    }
+
+    public int getFound() { return found; }
+    public long getMask(int rank) { return resultMask[rank]; }
+    public double getScore(int rank) { return resultScore[rank]; }
+    public int getSeats(int rank) { return resultSeats[rank]; }
+    public int getSize(int rank) { return resultSize[rank]; }
+
+    // マスクを政党のリストにする (議席の多い順)。partiesById は id 順
+    public static List<Party> toParties(long mask, List<Party> partiesById) {
+        List<Party> result = new ArrayList<>(Long.bitCount(mask));
+        for (long m = mask; m != 0; m &= m - 1) {
+            result.add(partiesById.get(Long.numberOfTrailingZeros(m)));
+        }
+        result.sort((a, b) -> Integer.compare(b.getSeats(), a.getSeats()));
+        return result;
+    }
+}
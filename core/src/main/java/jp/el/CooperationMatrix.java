@@ -0,0 +1,37 @@
+package jp.el;
+
+import java.util.List;
+
+// 政党間の協力度 (0~100) を読み込み時に一度だけ計算しておく対称行列
+// 添字は Party.getId() (parties.json の読み込み順)
+public class CooperationMatrix {
+    private final int size;
+    private final double[] values; // [i * size + j]
+
+    // values は [i * size + j] の対称行列 (テストで協力度を直接指定するため package-private)
+    CooperationMatrix(int size, double[] values) {
+        this.size = size;
+        this.values = values;
+    }
+
+    // parties は id 順に並んでいること
+    public static CooperationMatrix compute(List<Party> parties) {
+        int n = parties.size();
+        double[] values = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            values[i * n + i] = parties.get(i).getIdeologyVector() == null ? 0.0 : 100.0;
+            for (int j = i + 1; j < n; j++) {
+                double score = parties.get(i).calculateCooperation(parties.get(j));
+                values[i * n + j] = score;
+                values[j * n + i] = score;
+            }
+        }
+        return new CooperationMatrix(n, values);
+    }
+
+    public int size() { return size; }
+
+    public double get(int i, int j) { return values[i * size + j]; }
+
+    public double get(Party a, Party b) { return get(a.getId(), b.getId()); }
+}
@@ -0,0 +1,17 @@
+package jp.el;
+
+// 開票速報の1報 (ある選挙区で新たに開票された票数)
+public final class CountUpdate {
+    // 全選挙区の開票が終わった印
+    public static final CountUpdate END = new CountUpdate(-1, new int[0], true);
+
+    public final int district;
+    public final int[] deltas;    // 選挙区内の候補者順の増分
+    public final boolean finished; // この報でその選挙区は開票率100%
+
+    CountUpdate(int district, int[] deltas, boolean finished) {
+        this.district = district;
+        this.deltas = deltas;
+        this.finished = finished;
+    }
+}
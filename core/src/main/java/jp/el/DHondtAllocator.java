@@ -0,0 +1,59 @@
+package jp.el;
+
+// ドント式の議席配分
+// 政党を「得票 / (獲得議席 + 1)」の最大ヒープに入れ、先頭に1議席ずつ与えて沈め直す。
+// 除数表 (政党数 × 議席数) を作って並べ替える代わりに O(議席数 × log 政党数) で済む。
+// 商は割り算せずに 得票a × (議席b + 1) と 得票b × (議席a + 1) の掛け算で比べる (long なので桁あふれしない)。
+// 商が同じ場合は政党番号の小さい方 (実際の選挙ではくじ引き)。
+// 作業用の配列はコンストラクタで確保するので allocate() はメモリ確保をしない。スレッド間で共有しないこと。
+public class DHondtAllocator {
+    private final int[] heap;
+    private int size;
+    private int[] votes;
+    private int[] seats;
+
+    // partyCount は1回の allocate で配分する政党数の上限
+    public DHondtAllocator(int partyCount) {
+        this.heap = new int[partyCount];
+    }
+
+    // votes[from..from+n) の得票で seatCount 議席を配分し、各党の議席数を out[from..from+n) に書く
+    // 得票が 0 の政党には配分しない (全政党が 0 なら全員 0 議席)
+    public void allocate(int[] votes, int from, int n, int seatCount, int[] out) {
+        this.votes = votes;
+        this.seats = out;
+        size = 0;
+        for (int i = from; i < from + n; i++) {
+            out[i] = 0;
+            if (votes[i] > 0) heap[size++] = i;
+        }
+        if (size == 0) return;
+        for (int i = size / 2 - 1; i >= 0; i--) siftDown(i);
+
+        for (int s = 0; s < seatCount; s++) {
+            out[heap[0]]++;
+            siftDown(0);
+        }
+    }
+
+    private void siftDown(int i) {
+        int p = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && before(heap[child + 1], heap[child])) child++;
+            if (!before(heap[child], p)) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = p;
+    }
+
+    // a の商が b より大きい (同じなら番号の小さい方を先にする)
+    private boolean before(int a, int b) {
+        long qa = (long) votes[a] * (seats[b] + 1);
+        long qb = (long) votes[b] * (seats[a] + 1);
+        if (qa != qb) return qa > qb;
+        return a < b;
+    }
+}
@@ -0,0 +1,34 @@
+package jp.el;
+import java.util.AbstractList;
+import java.util.List;
+
+// ElectionTable の選挙区1つ分へのビュー
+public class District {
+    private final ElectionTable table;
+    private final int index;
+    private final List<Candidate> candidates;
+
+    District(ElectionTable table, int index) {
+        this.table = table;
+        this.index = index;
+        int from = table.getDistrictOffsets()[index];
+        int size = table.getDistrictOffsets()[index + 1] - from;
+        this.candidates = new AbstractList<>() {
+            @Override public Candidate get(int i) {
+                if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+                return table.getCandidate(from + i);
+            }
+            @Override public int size() { return size; }
+        };
+    }
+
+    public Candidate getWinner() {
+        int w = table.getWinner(index, table.getVotes());
+        return w < 0 ? null : table.getCandidate(w);
+    }
+
+    public String getName() { return table.getDistrictName(index); }
+    public int getPrefectureId() { return table.getDistrictPrefecture(index); }
+    public List<Candidate> getCandidates() { return candidates; }
+    public int getIndex() { return index; }
+}
@@ -0,0 +1,254 @@
+package jp.el;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.InputStream;
+import java.util.*;
+
+public class ElectionData {
+    private List<Party> parties;
+    private ElectionTable table;
+    private CooperationMatrix cooperationMatrix;
+    private ScoreTable scoreTable; // 遅延生成。setScoringModel で破棄する
+    private ScoringModel scoringModel = ScoringModel.loadDefault();
+    private List<MunicipalityData> municipalities = Collections.emptyList();
+    private MunicipalityTable municipalityTable; // 遅延生成
+    private final Set<String> currentLawmakers = new HashSet<>();
+
+    // 都道府県ごとの定数データ
+    private static final Map<String, Integer> PREFECTURE_SEATS = new LinkedHashMap<>();
+    static {
+        PREFECTURE_SEATS.put("北海道", 12); PREFECTURE_SEATS.put("青森県", 3); PREFECTURE_SEATS.put("岩手県", 3);
+        PREFECTURE_SEATS.put("宮城県", 5); PREFECTURE_SEATS.put("秋田県", 3); PREFECTURE_SEATS.put("山形県", 3);
+        PREFECTURE_SEATS.put("福島県", 4); PREFECTURE_SEATS.put("茨城県", 7); PREFECTURE_SEATS.put("栃木県", 5);
+        PREFECTURE_SEATS.put("群馬県", 5); PREFECTURE_SEATS.put("埼玉県", 16); PREFECTURE_SEATS.put("千葉県", 14);
+        PREFECTURE_SEATS.put("東京都", 30); PREFECTURE_SEATS.put("神奈川県", 20); PREFECTURE_SEATS.put("新潟県", 5);
+        PREFECTURE_SEATS.put("富山県", 3); PREFECTURE_SEATS.put("石川県", 3); PREFECTURE_SEATS.put("福井県", 2);
+        PREFECTURE_SEATS.put("山梨県", 2); PREFECTURE_SEATS.put("長野県", 5); PREFECTURE_SEATS.put("岐阜県", 5);
+        PREFECTURE_SEATS.put("静岡県", 8); PREFECTURE_SEATS.put("愛知県", 16); PREFECTURE_SEATS.put("三重県", 4);
+        PREFECTURE_SEATS.put("滋賀県", 3); PREFECTURE_SEATS.put("京都府", 6); PREFECTURE_SEATS.put("大阪府", 19);
+        PREFECTURE_SEATS.put("兵庫県", 12); PREFECTURE_SEATS.put("奈良県", 3); PREFECTURE_SEATS.put("和歌山県", 2);
+        PREFECTURE_SEATS.put("鳥取県", 2); PREFECTURE_SEATS.put("島根県", 2); PREFECTURE_SEATS.put("岡山県", 4);
+        PREFECTURE_SEATS.put("広島県", 6); PREFECTURE_SEATS.put("山口県", 3); PREFECTURE_SEATS.put("徳島県", 2);
+        PREFECTURE_SEATS.put("香川県", 3); PREFECTURE_SEATS.put("愛媛県", 3); PREFECTURE_SEATS.put("高知県", 2);
+        PREFECTURE_SEATS.put("福岡県", 11); PREFECTURE_SEATS.put("佐賀県", 2); PREFECTURE_SEATS.put("長崎県", 3);
+        PREFECTURE_SEATS.put("熊本県", 4); PREFECTURE_SEATS.put("大分県", 3); PREFECTURE_SEATS.put("宮崎県", 3);
+        PREFECTURE_SEATS.put("鹿児島県", 4); PREFECTURE_SEATS.put("沖縄県", 4);
+    }
+
+    // 都道府県番号 (PREFECTURE_SEATS の並び順で 0〜46)
+    // 選挙区・地図・詳細パネルはこの番号で都道府県を参照し、文字列での検索はしない
+    private static final String[] PREFECTURE_NAMES = PREFECTURE_SEATS.keySet().toArray(new String[0]);
+    private static final Map<String, Integer> PREFECTURE_IDS = new HashMap<>();
+    static {
+        for (int i = 0; i < PREFECTURE_NAMES.length; i++) PREFECTURE_IDS.put(PREFECTURE_NAMES[i], i);
+    }
+    private final PrefectureData[] prefectures = new PrefectureData[PREFECTURE_NAMES.length]; // 都道府県番号 -> データ
+
+    private static final String[] SURNAMES = {"佐藤", "鈴木", "高橋", "田中", "伊藤", "渡辺", "山本", "中村", "小林", "加藤"};
+    private static final String[] NAMES = {"一郎", "次郎", "花子", "美咲", "大輔", "誠", "陽子", "健太", "直人", "由美"};
+
+    // JSONマッピング用DTO
+    public static class PartyDTO {
+        public String name;
+        public String ideology;
+        public int popularity;
+        public String description;
+        public Map<String, Integer> ideologies;
+    }
+
+    // 選挙区・候補者の生成に使う乱数 (シードを指定すれば同じ候補者配置を再現できる)
+    private final long seed;
+    private final SplittableRandom districtRandom;
+    private final SplittableRandom nameRandom;
+
+    public ElectionData() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    public ElectionData(long seed) {
+        this.seed = seed;
+        SplittableRandom root = new SplittableRandom(seed);
+        this.districtRandom = root.split();
+        this.nameRandom = root.split();
+        init();
+    }
+
+    private void init() {
+        parties = new ArrayList<>();
+        loadCurrentLawmakers();
+        ObjectMapper mapper = new ObjectMapper();
+
+        try {
+            // 1. JSONから政党読み込み
+            InputStream partyStream = getClass().getResourceAsStream("/parties.json");
+            if (partyStream != null) {
+                List<PartyDTO> dtos = mapper.readValue(partyStream, new TypeReference<List<PartyDTO>>() {});
+                for (PartyDTO dto : dtos) {
+                    parties.add(new Party(dto.name, dto.ideology, dto.popularity, dto.description, dto.ideologies));
+                }
+            } else {
+                parties.add(new Party("自由党", "保守", 40, "説明なし", null));
+                parties.add(new Party("民進党", "リベラル", 30, "説明なし", null));
+            }
+
+
+            // 2. 都道府県データの読み込み (番号順の配列に格納)
+            InputStream prefStream = getClass().getResourceAsStream("/prefectures.json");
+            if (prefStream != null) {
+                List<PrefectureData> prefList = mapper.readValue(prefStream, new TypeReference<List<PrefectureData>>() {});
+                int loaded = 0;
+                for (PrefectureData p : prefList) {
+                    int id = prefectureIdOf(p.getName());
+                    if (id < 0) continue;
+                    prefectures[id] = p;
+                    loaded++;
+                }
+                System.out.println("都道府県データ読み込み完了: " + loaded + "件");
+            }
+
+            // 2b. 市区町村データ (任意)。-Djp.el.municipalities=ファイルパス でリソースの代わりに読む
+            loadMunicipalities(mapper);
+
+            // 3. 全国選挙区生成
+            generateNationwideDistricts();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        // 読み込みに失敗しても空のテーブルは用意しておく
+        if (table == null) table = new ElectionTable.Builder(parties).build();
+
+        // 政党番号の割り当てと協力度マトリクスの事前計算
+        for (int i = 0; i < parties.size(); i++) parties.get(i).setId(i);
+        cooperationMatrix = CooperationMatrix.compute(parties);
+    }
+
+
+    private void generateNationwideDistricts() {
+        SplittableRandom rand = districtRandom;
+        ElectionTable.Builder builder = new ElectionTable.Builder(parties);
+        for (int prefId = 0; prefId < PREFECTURE_NAMES.length; prefId++) {
+            String prefName = PREFECTURE_NAMES[prefId];
+            int seats = PREFECTURE_SEATS.get(prefName);
+
+            for (int i = 1; i <= seats; i++) {
+                String districtName = prefName + "第" + i + "区";
+                builder.addDistrict(districtName, prefId);
+                int numCandidates = 2 + rand.nextInt(3);
+
+                List<Party> shuffled = new ArrayList<>(parties);
+                shuffle(shuffled, rand);
+
+                for (int j = 0; j < numCandidates; j++) {
+                    if (j >= shuffled.size()) break;
+                    builder.addCandidate(generateName(), shuffled.get(j));
+                }
+            }
+        }
+        table = builder.build();
+    }
+    // 都道府県名から番号を求める (見つからなければ -1)
+    // GeoJSON の "東京" のように接尾辞のない名前も前方一致で解決する。起動時の対応付け専用
+    public static int prefectureIdOf(String name) {
+        if (name == null || name.isEmpty()) return -1;
+        Integer id = PREFECTURE_IDS.get(name);
+        if (id != null) return id;
+        for (int i = 0; i < PREFECTURE_NAMES.length; i++) {
+            if (PREFECTURE_NAMES[i].startsWith(name) || name.startsWith(PREFECTURE_NAMES[i])) return i;
+        }
+        return -1;
+    }
+
+    public static int getPrefectureCount() { return PREFECTURE_NAMES.length; }
+    public static String getPrefectureName(int id) { return PREFECTURE_NAMES[id]; }
+
+    // 都道府県番号からデータを取得 (データがなければ null)
+    public PrefectureData getPrefecture(int id) {
+        return id < 0 ? null : prefectures[id];
+    }
+
+    // 選挙区の都道府県データ
+    public PrefectureData getPrefectureData(District district) {
+        return getPrefecture(district.getPrefectureId());
+    }
+
+    public PrefectureData getPrefectureByName(String prefName) {
+        return getPrefecture(prefectureIdOf(prefName));
+    }
+
+    // Collections.shuffle は java.util.Random しか受け取らないので Fisher-Yates を自前で行う
+    private static <T> void shuffle(List<T> list, SplittableRandom rand) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            Collections.swap(list, i, rand.nextInt(i + 1));
+        }
+    }
+
+    private String generateName() {
+        SplittableRandom r = nameRandom;
+        for (int attempts = 0; attempts < 1000; attempts++) {
+            String name = SURNAMES[r.nextInt(SURNAMES.length)] + " " + NAMES[r.nextInt(NAMES.length)];
+            if (!currentLawmakers.contains(name)) {
+                return name;
+            }
+        }
+        return "匿名 候補";
+    }
+
+    private void loadMunicipalities(ObjectMapper mapper) throws java.io.IOException {
+        String override = System.getProperty("jp.el.municipalities");
+        try (InputStream stream = override != null
+                ? java.nio.file.Files.newInputStream(java.nio.file.Path.of(override))
+                : getClass().getResourceAsStream("/municipalities.json")) {
+            if (stream == null) return; // なければ都道府県単位の指標で計算する
+            municipalities = mapper.readValue(stream, new TypeReference<List<MunicipalityData>>() {});
+            System.out.println("市区町村データ読み込み完了: " + municipalities.size() + "件");
+        }
+    }
+
+    private void loadCurrentLawmakers() {
+        try (InputStream stream = getClass().getResourceAsStream("/current_diet_members.txt")) {
+            if (stream == null) {
+                return;
+            }
+            Scanner scanner = new Scanner(stream, "UTF-8");
+            while (scanner.hasNextLine()) {
+                String line = scanner.nextLine().trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    currentLawmakers.add(line);
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+
+    public long getSeed() { return seed; }
+    public List<Party> getParties() { return parties; }
+    public List<District> getDistricts() { return table.getDistricts(); }
+    public ElectionTable getTable() { return table; }
+    public CooperationMatrix getCooperationMatrix() { return cooperationMatrix; }
+
+    public List<MunicipalityData> getMunicipalities() { return municipalities; }
+
+    // 市区町村 -> 選挙区 -> 都道府県 -> 比例ブロック の対応表 (必要になった時点で作ってキャッシュする)
+    public synchronized MunicipalityTable getMunicipalityTable() {
+        if (municipalityTable == null) municipalityTable = MunicipalityTable.compile(this);
+        return municipalityTable;
+    }
+
+    // 候補者ごとの基礎スコア (必要になった時点でコンパイルしてキャッシュする)
+    public synchronized ScoreTable getScoreTable() {
+        if (scoreTable == null) scoreTable = ScoreTable.compile(this);
+        return scoreTable;
+    }
+
+    public synchronized ScoringModel getScoringModel() { return scoringModel; }
+
+    // 地域補正のルールを差し替える (次の getScoreTable() から反映される)
+    public synchronized void setScoringModel(ScoringModel model) {
+        this.scoringModel = Objects.requireNonNull(model);
+        scoreTable = null;
+    }
+}
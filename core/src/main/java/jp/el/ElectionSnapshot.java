@@ -0,0 +1,42 @@
+package jp.el;
+
+import java.util.List;
+
+// 1回分の選挙結果のスナップショット (バックグラウンドで作り、FXスレッドで画面に反映する)
+// 配列は作成時にコピーし、外には複製しか渡さないので、作成後は変更されない。
+public final class ElectionSnapshot {
+    private final long seed;
+    private final int trial;
+    private final int[] votes; // 候補者番号順
+    private final int[] seats; // 政党番号順 (ElectionTable の並び)。小選挙区 + 比例
+    private final int[] proportionalSeats; // 政党番号順。seats のうち比例の分
+
+    public ElectionSnapshot(long seed, int trial, int[] votes, int[] seats, int[] proportionalSeats) {
+        this.seed = seed;
+        this.trial = trial;
+        this.votes = votes.clone();
+        this.seats = seats.clone();
+        this.proportionalSeats = proportionalSeats.clone();
+    }
+
+    public long getSeed() { return seed; }
+    public int getTrial() { return trial; }
+    public int getVotes(int candidate) { return votes[candidate]; }
+    public int getSeats(int party) { return seats[party]; }
+    public int[] getVotes() { return votes.clone(); }
+    public int[] getSeats() { return seats.clone(); }
+    public int getProportionalSeats(int party) { return proportionalSeats[party]; }
+
+    // 票数をテーブルに、議席数を政党に書き込む (FXスレッドから呼ぶこと)
+    public void applyTo(ElectionData data) {
+        ElectionTable table = data.getTable();
+        System.arraycopy(votes, 0, table.getVotes(), 0, votes.length);
+
+        // 議席数を政党に反映 (与党フラグもリセット)
+        List<Party> parties = table.getPartyList();
+        parties.forEach(Party::reset);
+        for (int p = 0; p < seats.length; p++) {
+            parties.get(p).setSeats(seats[p], proportionalSeats[p]);
+        }
+    }
+}
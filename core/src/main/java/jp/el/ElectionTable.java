@@ -0,0 +1,131 @@
+package jp.el;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 選挙区・候補者を列指向 (struct-of-arrays) で保持するテーブル
+// 選挙区 d の候補者は [districtOffsets[d], districtOffsets[d + 1]) の範囲に連続して並ぶ。
+// District / Candidate はこのテーブルへのビューで、票数は votes 配列に直接入っている。
+// シミュレーションでは newVoteBuffer() で作った作業用配列を使い回せば試行ごとのオブジェクト生成は不要。
+public class ElectionTable {
+    private final Party[] parties;         // 政党番号 -> Party (読み込み順、UIの並び替えの影響を受けない)
+    private final String[] districtNames;
+    private final int[] districtPrefecture; // 選挙区 -> 都道府県番号 (ElectionData.getPrefecture の添字)
+    private final int[] districtOffsets;   // 長さ = 選挙区数 + 1
+    private final String[] candidateNames;
+    private final int[] candidateParty;    // 候補者番号 -> 政党番号
+    private final int[] votes;             // 画面表示用の票数 (Candidate ビューが参照する)
+    private final int maxCandidates;
+
+    private final List<District> districtViews;
+    private final Candidate[] candidateViews;
+
+    private ElectionTable(Party[] parties, String[] districtNames, int[] districtPrefecture, int[] districtOffsets,
+                          String[] candidateNames, int[] candidateParty) {
+        this.parties = parties;
+        this.districtNames = districtNames;
+        this.districtPrefecture = districtPrefecture;
+        this.districtOffsets = districtOffsets;
+        this.candidateNames = candidateNames;
+        this.candidateParty = candidateParty;
+        this.votes = new int[candidateNames.length];
+
+        int max = 0;
+        for (int d = 0; d < districtNames.length; d++) {
+            max = Math.max(max, districtOffsets[d + 1] - districtOffsets[d]);
+        }
+        this.maxCandidates = max;
+
+        this.candidateViews = new Candidate[candidateNames.length];
+        for (int c = 0; c < candidateViews.length; c++) candidateViews[c] = new Candidate(this, c);
+        List<District> views = new ArrayList<>(districtNames.length);
+        for (int d = 0; d < districtNames.length; d++) views.add(new District(this, d));
+        this.districtViews = Collections.unmodifiableList(views);
+    }
+
+    public int getDistrictCount() { return districtNames.length; }
+    public int getCandidateCount() { return candidateNames.length; }
+    public int getPartyCount() { return parties.length; }
+    public int getMaxCandidates() { return maxCandidates; }
+
+    public Party getParty(int partyIndex) { return parties[partyIndex]; }
+    public List<Party> getPartyList() { return Collections.unmodifiableList(Arrays.asList(parties)); }
+    public String getDistrictName(int district) { return districtNames[district]; }
+    public String getCandidateName(int candidate) { return candidateNames[candidate]; }
+
+    public int getDistrictPrefecture(int district) { return districtPrefecture[district]; }
+
+    // 以下の配列は読み取り専用として扱うこと (コピーせずに返す)
+    public int[] getDistrictPrefecture() { return districtPrefecture; }
+    public int[] getDistrictOffsets() { return districtOffsets; }
+    public int[] getCandidateParty() { return candidateParty; }
+    public int[] getVotes() { return votes; }
+
+    public List<District> getDistricts() { return districtViews; }
+    Candidate getCandidate(int candidate) { return candidateViews[candidate]; }
+
+    // ワーカーごとの作業用票数バッファ
+    public int[] newVoteBuffer() { return new int[candidateNames.length]; }
+
+    public void resetVotes() { Arrays.fill(votes, 0); }
+
+    // 選挙区の当選者 (候補者番号)。同票の場合は先の候補者、候補者がいなければ -1
+    public int getWinner(int district, int[] votes) {
+        int from = districtOffsets[district];
+        int to = districtOffsets[district + 1];
+        if (from == to) return -1;
+        int winner = from;
+        for (int c = from + 1; c < to; c++) {
+            if (votes[c] > votes[winner]) winner = c;
+        }
+        return winner;
+    }
+
+    public static class Builder {
+        private final Party[] parties;
+        private final Map<Party, Integer> partyIndex = new IdentityHashMap<>();
+        private final List<String> districtNames = new ArrayList<>();
+        private final List<Integer> districtPrefecture = new ArrayList<>();
+        private final List<Integer> districtOffsets = new ArrayList<>();
+        private final List<String> candidateNames = new ArrayList<>();
+        private final List<Integer> candidateParty = new ArrayList<>();
+
+        public Builder(List<Party> parties) {
+            this.parties = parties.toArray(new Party[0]);
+            for (int i = 0; i < this.parties.length; i++) partyIndex.put(this.parties[i], i);
+        }
+
+        public Builder addDistrict(String name, int prefectureId) {
+            districtNames.add(name);
+            districtPrefecture.add(prefectureId);
+            districtOffsets.add(candidateNames.size());
+            return this;
+        }
+
+        // 直前に追加した選挙区に候補者を追加する
+        public Builder addCandidate(String name, Party party) {
+            if (districtNames.isEmpty()) throw new IllegalStateException("addDistrict() が呼ばれていません");
+            Integer idx = partyIndex.get(party);
+            if (idx == null) throw new IllegalArgumentException("未登録の政党です: " + party.getName());
+            candidateNames.add(name);
+            candidateParty.add(idx);
+            return this;
+        }
+
+        public ElectionTable build() {
+            int[] offsets = new int[districtNames.size() + 1];
+            for (int d = 0; d < districtNames.size(); d++) offsets[d] = districtOffsets.get(d);
+            offsets[districtNames.size()] = candidateNames.size();
+            return new ElectionTable(parties,
+                    districtNames.toArray(new String[0]),
+                    districtPrefecture.stream().mapToInt(Integer::intValue).toArray(),
+                    offsets,
+                    candidateNames.toArray(new String[0]),
+                    candidateParty.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+}
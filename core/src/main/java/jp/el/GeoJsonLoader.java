@@ -0,0 +1,177 @@
+package jp.el;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+// japan.geojson の読み込み
+// JsonNode のツリーは作らず、JsonParser のトークンを1回だけ走査して
+// 投影済みの座標を MapGeometry の float 配列へ直接書き込む (メモリ使用量は出力サイズに比例する)
+public class GeoJsonLoader {
+    private static final JsonFactory JSON = new JsonFactory();
+    private static volatile MapGeometry japanGeometry; // 読み込み済みの地図 (画面を開き直しても再解析しない)
+    private static volatile MapLod japanLod;
+
+    public static Map<String, String> loadJapanMap() {
+        MapGeometry geometry = loadJapanGeometry();
+        return geometry == null ? new HashMap<>() : geometry.toSvgPaths();
+    }
+
+    // 任意のストリームから読み込む (ベンチマークなどリソース以外のデータ用)。ストリームは閉じる
+    public static Map<String, String> loadJapanMap(InputStream is) {
+        MapGeometry geometry = loadGeometry(is);
+        return geometry == null ? new HashMap<>() : geometry.toSvgPaths();
+    }
+
+    // resourcesフォルダの japan.geojson を読み込む (見つからなければ null)
+    // 2回目以降はメモリ上の結果を返し、次回起動時はバイナリキャッシュ (MapGeometryCache) から読む
+    public static MapGeometry loadJapanGeometry() {
+        MapGeometry geometry = japanGeometry;
+        if (geometry != null) return geometry;
+        synchronized (GeoJsonLoader.class) {
+            if (japanGeometry != null) return japanGeometry;
+            URL url = GeoJsonLoader.class.getResource("/japan.geojson");
+            if (url == null) {
+                System.out.println("エラー: src/main/resources/japan.geojson が見つかりません。");
+                return null; // 呼び出し側で JapanMapData にフォールバックさせる
+            }
+            japanGeometry = MapGeometryCache.loadOrBuild(url, "japan");
+            return japanGeometry;
+        }
+    }
+
+    // japan.geojson を詳細度別に間引いたもの (見つからなければ null)
+    public static MapLod loadJapanLod() {
+        MapLod lod = japanLod;
+        if (lod != null) return lod;
+        MapGeometry base = loadJapanGeometry();
+        if (base == null) return null;
+        synchronized (GeoJsonLoader.class) {
+            if (japanLod == null) japanLod = MapLod.build(base, MapLod.DEFAULT_TOLERANCES);
+            return japanLod;
+        }
+    }
+
+    public static MapGeometry loadGeometry(InputStream is) {
+        MapGeometry.Builder builder = new MapGeometry.Builder();
+        try (is; JsonParser p = JSON.createParser(is)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) return builder.build();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.getCurrentName();
+                JsonToken t = p.nextToken();
+                if ("features".equals(field) && t == JsonToken.START_ARRAY) {
+                    while (p.nextToken() == JsonToken.START_OBJECT) {
+                        readFeature(p, builder);
+                    }
+                } else {
+                    p.skipChildren();
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return builder.build();
+    }
+
+    // Feature 1つ分 (properties と geometry の順序は問わない)
+    private static void readFeature(JsonParser p, MapGeometry.Builder builder) throws IOException {
+        String name = "";
+        boolean polygon = false;
+        builder.beginShape();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            JsonToken t = p.nextToken();
+            if ("properties".equals(field) && t == JsonToken.START_OBJECT) {
+                name = readName(p);
+            } else if ("geometry".equals(field) && t == JsonToken.START_OBJECT) {
+                polygon = readGeometry(p, builder);
+            } else {
+                p.skipChildren();
+            }
+        }
+        if (name.isEmpty() || !polygon) {
+            builder.discardShape();
+        } else {
+            builder.endShape(name);
+        }
+    }
+
+    // GeoJSONのプロパティ名に合わせてください (例: "nam", "nam_ja", "name")
+    private static String readName(JsonParser p) throws IOException {
+        String namJa = null, nameProp = null, nam = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            JsonToken t = p.nextToken();
+            if (t == JsonToken.VALUE_STRING) {
+                if ("nam_ja".equals(field)) namJa = p.getText();
+                else if ("name".equals(field)) nameProp = p.getText();
+                else if ("nam".equals(field)) nam = p.getText();
+            } else {
+                p.skipChildren();
+            }
+        }
+        if (namJa != null) return namJa;
+        if (nameProp != null) return nameProp;
+        return nam != null ? nam : "";
+    }
+
+    // Polygon / MultiPolygon なら true
+    private static boolean readGeometry(JsonParser p, MapGeometry.Builder builder) throws IOException {
+        String type = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            JsonToken t = p.nextToken();
+            if ("type".equals(field) && t == JsonToken.VALUE_STRING) {
+                type = p.getText();
+            } else if ("coordinates".equals(field) && t == JsonToken.START_ARRAY) {
+                readCoordinates(p, builder);
+            } else {
+                p.skipChildren();
+            }
+        }
+        return "Polygon".equals(type) || "MultiPolygon".equals(type);
+    }
+
+    // 入れ子の座標配列を再帰的に読む。数値の配列は頂点、頂点を要素に持つ配列はリング。
+    // 現在のトークンは START_ARRAY。この配列自体が頂点なら true を返す
+    private static boolean readCoordinates(JsonParser p, MapGeometry.Builder builder) throws IOException {
+        JsonToken t = p.nextToken();
+        if (t == JsonToken.VALUE_NUMBER_FLOAT || t == JsonToken.VALUE_NUMBER_INT) {
+            double lon = p.getDoubleValue();
+            p.nextToken();
+            double lat = p.getDoubleValue();
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                // 高度などの3番目以降の値は読み飛ばす
+            }
+            builder.addPoint(projectX(lon), projectY(lat));
+            return true;
+        }
+        boolean ring = false;
+        while (t != JsonToken.END_ARRAY) {
+            if (t == JsonToken.START_ARRAY) {
+                ring |= readCoordinates(p, builder);
+            } else {
+                p.skipChildren();
+            }
+            t = p.nextToken();
+        }
+        if (ring) builder.endRing();
+        return false;
+    }
+
+    // 緯度は上がプラスなので、画面座標(Yが下プラス)にするには反転が必要
+    // メルカトル図法などの複雑な変換は省略し、線形変換します (表示サイズは JapanMapView 側で Bounds を見て合わせる)
+    static float projectX(double lon) {
+        return (float) ((lon - 127.0) * 20.0); // 基準点をずらして拡大
+    }
+
+    static float projectY(double lat) {
+        return (float) ((46.0 - lat) * 20.0);  // 緯度を反転
+    }
+}
@@ -0,0 +1,43 @@
+package jp.el;
+
+import java.util.Map;
+
+// イデオロギー指標の8軸 (parties.json の ideologies のキー)
+// ordinal() をそのまま double[] の添字として使う
+public enum IdeologyAxis {
+    CONSERVATIVE("保守"),
+    LIBERAL("リベラル"),
+    POPULISM("ポピュリズム"),
+    LIBERTARIANISM("リバタリアニズム"),
+    ENVIRONMENTALISM("環境主義"),
+    EXPANSIONARY("積極財政"),
+    AUSTERITY("緊縮財政"),
+    NATIONALISM("ナショナリズム");
+
+    public static final int COUNT = values().length;
+
+    private final String label;
+
+    IdeologyAxis(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() { return label; }
+
+    public static IdeologyAxis fromLabel(String label) {
+        for (IdeologyAxis axis : values()) {
+            if (axis.label.equals(label)) return axis;
+        }
+        return null;
+    }
+
+    // JSONのマップ (軸名 -> 0~20) を軸順の配列に変換する。データがなければ null
+    public static double[] toVector(Map<String, Integer> ideologies) {
+        if (ideologies == null) return null;
+        double[] vector = new double[COUNT];
+        for (IdeologyAxis axis : values()) {
+            vector[axis.ordinal()] = ideologies.getOrDefault(axis.label, 0);
+        }
+        return vector;
+    }
+}
@@ -73,4 +73,26 @@ public class JapanMapData {
         // 本州との距離を縮めて左下に配置
         PATHS.put("沖縄県", "M250,780 L300,760 L280,820 L230,810 Z");
     }
-}
\ No newline at end of file
+
+    // PATHS を MapGeometry に変換する (GeoJSON がないときの Canvas 描画用)
+    // パスは "M x,y L x,y ... Z" の絶対座標のみを想定している
+    public static MapGeometry toGeometry() {
+        MapGeometry.Builder builder = new MapGeometry.Builder();
+        for (Map.Entry<String, String> entry : PATHS.entrySet()) {
+            builder.beginShape();
+            for (String token : entry.getValue().trim().split("\\s+")) {
+                char cmd = token.charAt(0);
+                if (cmd == 'Z') {
+                    builder.endRing();
+                    continue;
+                }
+                if (cmd == 'M') builder.endRing();
+                String xy = Character.isLetter(cmd) ? token.substring(1) : token;
+                int comma = xy.indexOf(',');
+                builder.addPoint(Float.parseFloat(xy.substring(0, comma)), Float.parseFloat(xy.substring(comma + 1)));
+            }
+            builder.endShape(entry.getKey());
+        }
+        return builder.build();
+    }
+}
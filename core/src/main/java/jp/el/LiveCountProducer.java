@@ -0,0 +1,91 @@
+package jp.el;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// 確定済みの結果 (ElectionSnapshot) を少しずつ開票していく生産者 (バックグラウンドスレッドで動かす)
+// 選挙区ごとに開票の開始・終了時刻をばらつかせ、各報ではまだ数えていない票から無作為に数えた分を送る。
+// キューが一杯なら put で待つので、画面側が追いつかなくても報が溜まり続けることはない。
+public class LiveCountProducer implements Runnable {
+    private final ElectionTable table;
+    private final ElectionSnapshot result;
+    private final SplittableRandom rand;
+    private final BlockingQueue<CountUpdate> queue;
+    private final long durationNanos;
+    private final int steps; // 選挙区あたりの報の数
+
+    public LiveCountProducer(ElectionTable table, ElectionSnapshot result, SplittableRandom rand,
+                      BlockingQueue<CountUpdate> queue, long durationMillis, int steps) {
+        this.table = table;
+        this.result = result;
+        this.rand = rand;
+        this.queue = queue;
+        this.durationNanos = TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        this.steps = steps;
+    }
+
+    @Override
+    public void run() {
+        int districtCount = table.getDistrictCount();
+        int[] offsets = table.getDistrictOffsets();
+
+        // 報の予定 (上位ビットに時刻、下位20ビットに選挙区番号) を時刻順に並べる
+        long[] schedule = new long[districtCount * steps];
+        for (int d = 0; d < districtCount; d++) {
+            double start = rand.nextDouble() * 0.3;
+            double end = 0.4 + rand.nextDouble() * 0.6;
+            for (int k = 0; k < steps; k++) {
+                double t = start + (end - start) * (k + 1) / steps;
+                long micros = (long) (t * TimeUnit.NANOSECONDS.toMicros(durationNanos));
+                schedule[d * steps + k] = (micros << 20) | d;
+            }
+        }
+        Arrays.sort(schedule);
+
+        int[] remaining = result.getVotes(); // まだ数えていない票 (候補者番号順)
+        int[] reported = new int[districtCount];
+        long begin = System.nanoTime();
+        try {
+            for (long event : schedule) {
+                int d = (int) (event & 0xFFFFF);
+                long due = begin + TimeUnit.MICROSECONDS.toNanos(event >>> 20);
+                long wait = due - System.nanoTime();
+                if (wait > 1_000_000L) TimeUnit.NANOSECONDS.sleep(wait);
+
+                int from = offsets[d];
+                int n = offsets[d + 1] - from;
+                int[] deltas = new int[n];
+                boolean last = ++reported[d] == steps;
+                if (last) {
+                    System.arraycopy(remaining, from, deltas, 0, n);
+                } else {
+                    countBallots(remaining, from, n, deltas, steps - reported[d] + 1);
+                }
+                for (int i = 0; i < n; i++) remaining[from + i] -= deltas[i];
+                queue.put(new CountUpdate(d, deltas, last));
+            }
+            queue.put(CountUpdate.END);
+        } catch (InterruptedException e) {
+            // 中止された (残りは送らない)
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 残り票のうち 1/stepsLeft 程度を無作為に数える
+    // (候補者順に条件付き二項分布で引く。残り票を超えないので最後の報で必ずぴったり合う)
+    private void countBallots(int[] remaining, int from, int n, int[] deltas, int stepsLeft) {
+        int total = 0;
+        for (int i = 0; i < n; i++) total += remaining[from + i];
+        int ballots = total / stepsLeft;
+        for (int i = 0; i < n && ballots > 0; i++) {
+            int r = remaining[from + i];
+            int x = r >= total ? ballots : VoteSampler.binomial(rand, ballots, (double) r / total);
+            x = Math.min(x, r);
+            deltas[i] = x;
+            ballots -= x;
+            total -= r;
+        }
+    }
+}
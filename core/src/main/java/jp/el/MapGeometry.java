@@ -0,0 +1,194 @@
+package jp.el;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 投影済みの地図図形をプリミティブ配列で保持する
+// 図形 s のリングは [shapeRingOffsets[s], shapeRingOffsets[s + 1])、
+// リング r の頂点は [ringPointOffsets[r], ringPointOffsets[r + 1]) で、座標は coords に x, y の順で並ぶ。
+public class MapGeometry {
+    private final String[] names;
+    private final int[] shapeRingOffsets;
+    private final int[] ringPointOffsets;
+    private final float[] coords;
+    private final float[] shapeBounds; // 図形ごとの minX, minY, maxX, maxY
+    private final float[] bounds;      // 全体の minX, minY, maxX, maxY
+
+    MapGeometry(String[] names, int[] shapeRingOffsets, int[] ringPointOffsets,
+                float[] coords, float[] shapeBounds, float[] bounds) {
+        this.names = names;
+        this.shapeRingOffsets = shapeRingOffsets;
+        this.ringPointOffsets = ringPointOffsets;
+        this.coords = coords;
+        this.shapeBounds = shapeBounds;
+        this.bounds = bounds;
+    }
+
+    public int getShapeCount() { return names.length; }
+    public int getPointCount() { return coords.length / 2; }
+    public String getName(int shape) { return names[shape]; }
+
+    public float getMinX(int shape) { return shapeBounds[shape * 4]; }
+    public float getMinY(int shape) { return shapeBounds[shape * 4 + 1]; }
+    public float getMaxX(int shape) { return shapeBounds[shape * 4 + 2]; }
+    public float getMaxY(int shape) { return shapeBounds[shape * 4 + 3]; }
+
+    public float getMinX() { return bounds[0]; }
+    public float getMinY() { return bounds[1]; }
+    public float getMaxX() { return bounds[2]; }
+    public float getMaxY() { return bounds[3]; }
+
+    // 以下の配列は読み取り専用として扱うこと (コピーせずに返す)
+    public String[] getNames() { return names; }
+    public int[] getShapeRingOffsets() { return shapeRingOffsets; }
+    public int[] getRingPointOffsets() { return ringPointOffsets; }
+    public float[] getCoords() { return coords; }
+    public float[] getShapeBounds() { return shapeBounds; }
+    public float[] getBounds() { return bounds; }
+
+    // SVGPath 用のパス文字列
+    public String toSvgPath(int shape) {
+        StringBuilder sb = new StringBuilder();
+        appendSvgPath(sb, shape);
+        return sb.toString();
+    }
+
+    // 図形名 -> パス文字列 (同じ名前の図形は1つのパスにまとめる)
+    public Map<String, String> toSvgPaths() {
+        Map<String, StringBuilder> builders = new LinkedHashMap<>();
+        for (int s = 0; s < names.length; s++) {
+            appendSvgPath(builders.computeIfAbsent(names[s], k -> new StringBuilder()), s);
+        }
+        Map<String, String> paths = new LinkedHashMap<>();
+        builders.forEach((name, sb) -> paths.put(name, sb.toString()));
+        return paths;
+    }
+
+    private void appendSvgPath(StringBuilder sb, int shape) {
+        for (int r = shapeRingOffsets[shape]; r < shapeRingOffsets[shape + 1]; r++) {
+            int from = ringPointOffsets[r];
+            int to = ringPointOffsets[r + 1];
+            for (int i = from; i < to; i++) {
+                sb.append(i == from ? "M" : " L").append(coords[i * 2]).append(',').append(coords[i * 2 + 1]);
+            }
+            sb.append(" Z ");
+        }
+    }
+
+    // 図形 -> リング -> 頂点 の順に追加していくビルダー
+    public static class Builder {
+        private String[] names = new String[64];
+        private int[] shapeRingOffsets = new int[65];
+        private int[] ringPointOffsets = new int[1024];
+        private float[] coords = new float[8192];
+        private float[] shapeBounds = new float[256];
+        private final float[] bounds = {Float.MAX_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+
+        private int shapeCount = 0;
+        private int ringCount = 0;
+        private int pointCount = 0;
+        private boolean shapeOpen = false;
+        private boolean ringOpen = false;
+
+        public Builder beginShape() {
+            if (shapeOpen) throw new IllegalStateException("前の図形が閉じられていません");
+            shapeOpen = true;
+            shapeRingOffsets[shapeCount] = ringCount;
+            shapeBounds = ensure(shapeBounds, (shapeCount + 1) * 4);
+            int b = shapeCount * 4;
+            shapeBounds[b] = Float.MAX_VALUE;
+            shapeBounds[b + 1] = Float.MAX_VALUE;
+            shapeBounds[b + 2] = -Float.MAX_VALUE;
+            shapeBounds[b + 3] = -Float.MAX_VALUE;
+            return this;
+        }
+
+        public Builder addPoint(float x, float y) {
+            if (!shapeOpen) throw new IllegalStateException("beginShape() が呼ばれていません");
+            if (!ringOpen) {
+                ringPointOffsets = ensure(ringPointOffsets, ringCount + 2);
+                ringPointOffsets[ringCount] = pointCount;
+                ringOpen = true;
+            }
+            coords = ensure(coords, (pointCount + 1) * 2);
+            coords[pointCount * 2] = x;
+            coords[pointCount * 2 + 1] = y;
+            pointCount++;
+
+            int b = shapeCount * 4;
+            if (x < shapeBounds[b]) shapeBounds[b] = x;
+            if (y < shapeBounds[b + 1]) shapeBounds[b + 1] = y;
+            if (x > shapeBounds[b + 2]) shapeBounds[b + 2] = x;
+            if (y > shapeBounds[b + 3]) shapeBounds[b + 3] = y;
+            return this;
+        }
+
+        public Builder endRing() {
+            if (ringOpen) {
+                ringCount++;
+                ringPointOffsets[ringCount] = pointCount;
+                ringOpen = false;
+            }
+            return this;
+        }
+
+        // 図形を確定する。頂点がなければ捨てる
+        public Builder endShape(String name) {
+            endRing();
+            if (!shapeOpen) throw new IllegalStateException("beginShape() が呼ばれていません");
+            if (ringCount == shapeRingOffsets[shapeCount]) {
+                discardShape();
+                return this;
+            }
+            names = ensure(names, shapeCount + 1);
+            shapeRingOffsets = ensure(shapeRingOffsets, shapeCount + 2);
+            names[shapeCount] = name;
+            int b = shapeCount * 4;
+            bounds[0] = Math.min(bounds[0], shapeBounds[b]);
+            bounds[1] = Math.min(bounds[1], shapeBounds[b + 1]);
+            bounds[2] = Math.max(bounds[2], shapeBounds[b + 2]);
+            bounds[3] = Math.max(bounds[3], shapeBounds[b + 3]);
+            shapeCount++;
+            shapeRingOffsets[shapeCount] = ringCount;
+            shapeOpen = false;
+            return this;
+        }
+
+        // 作成中の図形を取り消す (名前がない・ポリゴン以外などの場合)
+        public Builder discardShape() {
+            if (!shapeOpen) return this;
+            ringOpen = false;
+            ringCount = shapeRingOffsets[shapeCount];
+            pointCount = ringPointOffsets[ringCount];
+            shapeOpen = false;
+            return this;
+        }
+
+        public boolean isShapeOpen() { return shapeOpen; }
+
+        public MapGeometry build() {
+            if (shapeOpen) discardShape();
+            float[] total = shapeCount == 0 ? new float[4] : bounds.clone();
+            return new MapGeometry(
+                    Arrays.copyOf(names, shapeCount),
+                    Arrays.copyOf(shapeRingOffsets, shapeCount + 1),
+                    Arrays.copyOf(ringPointOffsets, ringCount + 1),
+                    Arrays.copyOf(coords, pointCount * 2),
+                    Arrays.copyOf(shapeBounds, shapeCount * 4),
+                    total);
+        }
+
+        private static float[] ensure(float[] a, int size) {
+            return size <= a.length ? a : Arrays.copyOf(a, Math.max(size, a.length * 2));
+        }
+
+        private static int[] ensure(int[] a, int size) {
+            return size <= a.length ? a : Arrays.copyOf(a, Math.max(size, a.length * 2));
+        }
+
+        private static String[] ensure(String[] a, int size) {
+            return size <= a.length ? a : Arrays.copyOf(a, Math.max(size, a.length * 2));
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package jp.el;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+// MapGeometry のバイナリキャッシュ
+// 元の GeoJSON のハッシュと VERSION をファイル名に含めて保存し、次回起動時は FileChannel.map で読むだけにする。
+// GeoJsonLoader の解析・投影やこの形式を変えたら VERSION を上げること (古いキャッシュを読まないように)。
+// 形式 (リトルエンディアン):
+//   magic, version, 図形数, リング数, 頂点数, 全体の範囲 float[4],
+//   図形名 (short 長さ + UTF-8), 図形->リング int[], リング->頂点 int[], 図形の範囲 float[], 座標 float[]
+public class MapGeometryCache {
+    private static final int MAGIC = 0x434D474A; // "JGMC"
+    private static final int VERSION = 1;
+
+    private MapGeometryCache() {}
+
+    // キャッシュの保存先 (-Djp.el.cacheDir=... で変更可能)
+    public static Path cacheDir() {
+        String dir = System.getProperty("jp.el.cacheDir");
+        if (dir != null) return Paths.get(dir);
+        return Paths.get(System.getProperty("user.home"), ".election-simulator", "cache");
+    }
+
+    // source のキャッシュがあれば読み込み、なければ GeoJSON を解析してキャッシュを作る
+    public static MapGeometry loadOrBuild(URL source, String baseName) {
+        Path cacheFile;
+        try {
+            cacheFile = cacheDir().resolve(baseName + "-" + sourceHash(source) + "-v" + VERSION + ".geom");
+        } catch (IOException e) {
+            // 元データのハッシュが取れなければキャッシュは使わない
+            System.out.println("地図キャッシュの名前を決められませんでした: " + e.getMessage());
+            cacheFile = null;
+        }
+        if (cacheFile != null && Files.isRegularFile(cacheFile)) {
+            try {
+                return read(cacheFile);
+            } catch (IOException e) {
+                // 壊れている・読めない場合は GeoJSON から作り直し、下の write で上書きする
+                System.out.println("地図キャッシュを読み込めませんでした: " + e.getMessage());
+            }
+        }
+
+        MapGeometry geometry;
+        try {
+            geometry = GeoJsonLoader.loadGeometry(source.openStream());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+        if (cacheFile != null && geometry.getShapeCount() > 0) {
+            try {
+                write(geometry, cacheFile);
+            } catch (IOException e) {
+                System.out.println("地図キャッシュを保存できませんでした: " + e.getMessage());
+            }
+        }
+        return geometry;
+    }
+
+    // 元データの内容から作るキー (CRC32C + バイト数)。ストリームで計算するので全体をメモリに載せない
+    static String sourceHash(URL source) throws IOException {
+        CRC32C crc = new CRC32C();
+        long length = 0;
+        byte[] buf = new byte[64 * 1024];
+        try (InputStream in = source.openStream()) {
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                crc.update(buf, 0, n);
+                length += n;
+            }
+        }
+        return Long.toHexString(crc.getValue()) + "-" + Long.toHexString(length);
+    }
+
+    public static void write(MapGeometry g, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        byte[][] names = new byte[g.getShapeCount()][];
+        int namesSize = 0;
+        for (int s = 0; s < names.length; s++) {
+            names[s] = g.getName(s).getBytes(StandardCharsets.UTF_8);
+            if (names[s].length > 0xFFFF) { // 長さは符号なし short
+                throw new IOException("図形名が長すぎます (" + names[s].length + "バイト): " + s);
+            }
+            namesSize += 2 + names[s].length;
+        }
+        int ringCount = g.getRingPointOffsets().length - 1;
+        long size = 4L * 5 + 4 * 4 + namesSize
+                + 4L * g.getShapeRingOffsets().length
+                + 4L * g.getRingPointOffsets().length
+                + 4L * g.getShapeBounds().length
+                + 4L * g.getCoords().length;
+
+        ByteBuffer buf = ByteBuffer.allocate(Math.toIntExact(size)).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(names.length).putInt(ringCount).putInt(g.getPointCount());
+        for (float v : g.getBounds()) buf.putFloat(v);
+        for (byte[] name : names) {
+            buf.putShort((short) name.length).put(name);
+        }
+        buf.asIntBuffer().put(g.getShapeRingOffsets());
+        buf.position(buf.position() + 4 * g.getShapeRingOffsets().length);
+        buf.asIntBuffer().put(g.getRingPointOffsets());
+        buf.position(buf.position() + 4 * g.getRingPointOffsets().length);
+        buf.asFloatBuffer().put(g.getShapeBounds());
+        buf.position(buf.position() + 4 * g.getShapeBounds().length);
+        buf.asFloatBuffer().put(g.getCoords());
+        buf.rewind();
+
+        // 途中で落ちても壊れたキャッシュが残らないように一時ファイル経由で置き換える
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public static MapGeometry read(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            ByteBuffer buf = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                throw new IOException("地図キャッシュの形式が違います: " + file);
+            }
+            int shapeCount = buf.getInt();
+            int ringCount = buf.getInt();
+            int pointCount = buf.getInt();
+            float[] bounds = new float[4];
+            for (int i = 0; i < 4; i++) bounds[i] = buf.getFloat();
+
+            String[] names = new String[shapeCount];
+            for (int s = 0; s < shapeCount; s++) {
+                byte[] name = new byte[buf.getShort() & 0xFFFF];
+                buf.get(name);
+                names[s] = new String(name, StandardCharsets.UTF_8);
+            }
+            int[] shapeRingOffsets = new int[shapeCount + 1];
+            buf.asIntBuffer().get(shapeRingOffsets);
+            buf.position(buf.position() + 4 * shapeRingOffsets.length);
+            int[] ringPointOffsets = new int[ringCount + 1];
+            buf.asIntBuffer().get(ringPointOffsets);
+            buf.position(buf.position() + 4 * ringPointOffsets.length);
+            float[] shapeBounds = new float[shapeCount * 4];
+            buf.asFloatBuffer().get(shapeBounds);
+            buf.position(buf.position() + 4 * shapeBounds.length);
+            float[] coords = new float[pointCount * 2];
+            buf.asFloatBuffer().get(coords);
+
+            return new MapGeometry(names, shapeRingOffsets, ringPointOffsets, coords, shapeBounds, bounds);
+        } catch (RuntimeException e) {
+            // 途中で切れたファイルなど
+            throw new IOException("地図キャッシュが壊れています: " + file, e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package jp.el;
+
+// 図形の外接矩形を一様グリッドに登録した空間インデックス (マウス位置 -> 図形番号)
+// グリッドで候補を絞り込み、外接矩形と点の内外判定 (偶奇則) で確定する。
+// 外接矩形は元データ (LODレベル0) で作る。間引いた図形は元の頂点の部分集合なので、どのレベルの判定にも使える。
+public class MapIndex {
+    private final float minX, minY, cellW, cellH;
+    private final int cols, rows;
+    private final int[] cellOffsets; // セル c の図形は cellShapes[cellOffsets[c] .. cellOffsets[c + 1])
+    private final int[] cellShapes;  // セル内は図形番号の昇順 (= 描画順)
+
+    private MapIndex(float minX, float minY, float cellW, float cellH, int cols, int rows,
+                     int[] cellOffsets, int[] cellShapes) {
+        this.minX = minX;
+        this.minY = minY;
+        this.cellW = cellW;
+        this.cellH = cellH;
+        this.cols = cols;
+        this.rows = rows;
+        this.cellOffsets = cellOffsets;
+        this.cellShapes = cellShapes;
+    }
+
+    // 1辺のセル数は図形数の平方根の2倍程度 (47都道府県で14、市区町村1700程度で83)
+    public static MapIndex build(MapGeometry g) {
+        int n = g.getShapeCount();
+        int side = Math.max(1, (int) Math.ceil(Math.sqrt(n) * 2));
+        float minX = g.getMinX();
+        float minY = g.getMinY();
+        float cellW = Math.max((g.getMaxX() - minX) / side, 1e-6f);
+        float cellH = Math.max((g.getMaxY() - minY) / side, 1e-6f);
+
+        // 図形ごとのセル範囲 (c0, c1, r0, r1)
+        int[] ranges = new int[n * 4];
+        int[] offsets = new int[side * side + 1];
+        for (int s = 0; s < n; s++) {
+            int c0 = clamp((int) ((g.getMinX(s) - minX) / cellW), side);
+            int c1 = clamp((int) ((g.getMaxX(s) - minX) / cellW), side);
+            int r0 = clamp((int) ((g.getMinY(s) - minY) / cellH), side);
+            int r1 = clamp((int) ((g.getMaxY(s) - minY) / cellH), side);
+            ranges[s * 4] = c0;
+            ranges[s * 4 + 1] = c1;
+            ranges[s * 4 + 2] = r0;
+            ranges[s * 4 + 3] = r1;
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) offsets[r * side + c + 1]++;
+            }
+        }
+        for (int i = 0; i < side * side; i++) offsets[i + 1] += offsets[i];
+
+        int[] cursor = offsets.clone();
+        int[] shapes = new int[offsets[side * side]];
+        for (int s = 0; s < n; s++) {
+            for (int r = ranges[s * 4 + 2]; r <= ranges[s * 4 + 3]; r++) {
+                for (int c = ranges[s * 4]; c <= ranges[s * 4 + 1]; c++) shapes[cursor[r * side + c]++] = s;
+            }
+        }
+        return new MapIndex(minX, minY, cellW, cellH, side, side, offsets, shapes);
+    }
+
+    // 点 (地図座標) を含む図形番号。重なっている場合は後に描画される (手前の) 図形。なければ -1
+    public int find(MapGeometry g, double x, double y) {
+        if (x < minX || y < minY || x > minX + cellW * cols || y > minY + cellH * rows) return -1;
+        int c = Math.min((int) ((x - minX) / cellW), cols - 1);
+        int r = Math.min((int) ((y - minY) / cellH), rows - 1);
+
+        int cell = r * cols + c;
+        for (int i = cellOffsets[cell + 1] - 1; i >= cellOffsets[cell]; i--) {
+            int s = cellShapes[i];
+            if (x < g.getMinX(s) || x > g.getMaxX(s) || y < g.getMinY(s) || y > g.getMaxY(s)) continue;
+            if (contains(g, s, x, y)) return s;
+        }
+        return -1;
+    }
+
+    // 偶奇則による内外判定 (穴のリングや飛び地もまとめて扱える)
+    public static boolean contains(MapGeometry g, int shape, double x, double y) {
+        int[] shapeRings = g.getShapeRingOffsets();
+        int[] ringPoints = g.getRingPointOffsets();
+        float[] coords = g.getCoords();
+        boolean inside = false;
+        for (int ring = shapeRings[shape]; ring < shapeRings[shape + 1]; ring++) {
+            int from = ringPoints[ring];
+            int to = ringPoints[ring + 1];
+            for (int i = from, j = to - 1; i < to; j = i++) {
+                double yi = coords[i * 2 + 1];
+                double yj = coords[j * 2 + 1];
+                if ((yi > y) != (yj > y)) {
+                    double xi = coords[i * 2];
+                    double xj = coords[j * 2];
+                    if (x < (xj - xi) * (y - yi) / (yj - yi) + xi) inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    private static int clamp(int v, int side) {
+        return v < 0 ? 0 : Math.min(v, side - 1);
+    }
+}
@@ -0,0 +1,161 @@
+package jp.el;
+
+import java.util.Arrays;
+
+// 地図の詳細度 (Level of Detail)
+// 元の図形を Douglas-Peucker 法で何段階か間引いたものを事前に作っておき、
+// 表示倍率に応じて「画面上の誤差が MAX_PIXEL_ERROR 以下になる一番粗いレベル」を選ぶ。
+public class MapLod {
+    // 地図座標 (緯度経度 × 20) での許容誤差。レベル0は元データ
+    public static final float[] DEFAULT_TOLERANCES = {0f, 0.1f, 0.4f, 1.6f};
+    // 画面上で許容するずれ (px)
+    public static final double MAX_PIXEL_ERROR = 0.75;
+
+    private final float[] tolerances;
+    private final MapGeometry[] levels;
+    private final String[][] svgPaths; // レベルごとのパス文字列 (必要になったときに作る)
+
+    private MapLod(float[] tolerances, MapGeometry[] levels) {
+        this.tolerances = tolerances;
+        this.levels = levels;
+        this.svgPaths = new String[levels.length][];
+    }
+
+    public static MapLod build(MapGeometry base, float[] tolerances) {
+        MapGeometry[] levels = new MapGeometry[tolerances.length];
+        for (int i = 0; i < tolerances.length; i++) {
+            levels[i] = tolerances[i] <= 0 ? base : simplify(base, tolerances[i]);
+        }
+        return new MapLod(tolerances.clone(), levels);
+    }
+
+    public int getLevelCount() { return levels.length; }
+    public MapGeometry getLevel(int level) { return levels[level]; }
+    public float getTolerance(int level) { return tolerances[level]; }
+
+    // 表示倍率 (地図座標1あたりのピクセル数) に合うレベル
+    public int levelForScale(double scale) {
+        int best = 0;
+        for (int i = 0; i < tolerances.length; i++) {
+            if (tolerances[i] * scale <= MAX_PIXEL_ERROR) best = i;
+        }
+        return best;
+    }
+
+    // 図形ごとのパス文字列 (添字は MapGeometry の図形番号)
+    public synchronized String[] getSvgPaths(int level) {
+        if (svgPaths[level] == null) {
+            MapGeometry g = levels[level];
+            String[] paths = new String[g.getShapeCount()];
+            for (int s = 0; s < paths.length; s++) paths[s] = g.toSvgPath(s);
+            svgPaths[level] = paths;
+        }
+        return svgPaths[level];
+    }
+
+    // リングごとに Douglas-Peucker 法で頂点を間引く。
+    // 3頂点未満になったリング (小さな島など) は落とすが、図形ごとに最低1本 (一番大きいリング) は残す
+    static MapGeometry simplify(MapGeometry g, float tolerance) {
+        int[] shapeRings = g.getShapeRingOffsets();
+        int[] ringPoints = g.getRingPointOffsets();
+        float[] coords = g.getCoords();
+        boolean[] keep = new boolean[g.getPointCount()];
+        int[] stack = new int[64];
+        double tol2 = (double) tolerance * tolerance;
+
+        MapGeometry.Builder builder = new MapGeometry.Builder();
+        for (int s = 0; s < g.getShapeCount(); s++) {
+            builder.beginShape();
+            int kept = 0;
+            int largest = -1;
+            double largestArea = -1;
+            for (int r = shapeRings[s]; r < shapeRings[s + 1]; r++) {
+                int from = ringPoints[r];
+                int to = ringPoints[r + 1];
+                double area = bboxArea(coords, from, to);
+                if (area > largestArea) {
+                    largestArea = area;
+                    largest = r;
+                }
+                stack = markKept(coords, from, to, tol2, keep, stack);
+                int count = 0;
+                for (int i = from; i < to; i++) if (keep[i]) count++;
+                // 閉じたリングは始点と終点が同じなので、面になるには4点必要
+                if (count < 4) continue;
+                for (int i = from; i < to; i++) {
+                    if (keep[i]) builder.addPoint(coords[i * 2], coords[i * 2 + 1]);
+                }
+                builder.endRing();
+                kept++;
+            }
+            if (kept == 0 && largest >= 0) {
+                for (int i = ringPoints[largest]; i < ringPoints[largest + 1]; i++) {
+                    builder.addPoint(coords[i * 2], coords[i * 2 + 1]);
+                }
+                builder.endRing();
+            }
+            builder.endShape(g.getName(s));
+        }
+        return builder.build();
+    }
+
+    // [from, to) の頂点のうち残すものに印をつける (再帰の代わりに区間のスタックを使う)
+    private static int[] markKept(float[] c, int from, int to, double tol2, boolean[] keep, int[] stack) {
+        if (to - from <= 2) {
+            for (int i = from; i < to; i++) keep[i] = true;
+            return stack;
+        }
+        Arrays.fill(keep, from, to, false);
+        keep[from] = true;
+        keep[to - 1] = true;
+
+        int sp = 0;
+        stack[sp++] = from;
+        stack[sp++] = to - 1;
+        while (sp > 0) {
+            int b = stack[--sp];
+            int a = stack[--sp];
+            double maxDist = -1;
+            int index = -1;
+            for (int i = a + 1; i < b; i++) {
+                double d = segmentDistance2(c, i, a, b);
+                if (d > maxDist) {
+                    maxDist = d;
+                    index = i;
+                }
+            }
+            if (index >= 0 && maxDist > tol2) {
+                keep[index] = true;
+                if (sp + 4 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[sp++] = a;
+                stack[sp++] = index;
+                stack[sp++] = index;
+                stack[sp++] = b;
+            }
+        }
+        return stack;
+    }
+
+    // 頂点 p と線分 a-b の距離の2乗 (a と b が同じ点なら点同士の距離)
+    private static double segmentDistance2(float[] c, int p, int a, int b) {
+        double ax = c[a * 2], ay = c[a * 2 + 1];
+        double dx = c[b * 2] - ax, dy = c[b * 2 + 1] - ay;
+        double px = c[p * 2] - ax, py = c[p * 2 + 1] - ay;
+        double len2 = dx * dx + dy * dy;
+        if (len2 == 0) return px * px + py * py;
+        double t = Math.max(0, Math.min(1, (px * dx + py * dy) / len2));
+        double ex = px - t * dx, ey = py - t * dy;
+        return ex * ex + ey * ey;
+    }
+
+    private static double bboxArea(float[] c, int from, int to) {
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            minX = Math.min(minX, c[i * 2]);
+            maxX = Math.max(maxX, c[i * 2]);
+            minY = Math.min(minY, c[i * 2 + 1]);
+            maxY = Math.max(maxY, c[i * 2 + 1]);
+        }
+        return (double) (maxX - minX) * (maxY - minY);
+    }
+}
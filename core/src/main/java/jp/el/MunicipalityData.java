@@ -0,0 +1,18 @@
+package jp.el;
+
+// 市区町村ごとの指標 (municipalities.json の1行)
+// 指標の項目は PrefectureData と同じ。name は市区町村名
+// district は都道府県内の選挙区番号 (「東京都第1区」なら 1)。複数の選挙区にまたがる市区町村は選挙区ごとに行を分け、
+// population にはその選挙区に含まれる部分の人口を入れる
+public class MunicipalityData extends PrefectureData {
+    private String prefecture;
+    private int district;
+    private int population;
+
+    // デフォルトコンストラクタ（Jackson用）
+    public MunicipalityData() {}
+
+    public String getPrefecture() { return prefecture; }
+    public int getDistrict() { return district; }
+    public int getPopulation() { return population; }
+}
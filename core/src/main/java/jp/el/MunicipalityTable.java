@@ -0,0 +1,122 @@
+package jp.el;
+
+import java.util.Arrays;
+import java.util.List;
+
+// 市区町村 -> 選挙区 -> 都道府県 の階層を添字の配列で持つ表 (比例ブロックは ProportionalBlocks.blockOf で引く)
+// 市区町村の行は選挙区ごとに連続して並べ、選挙区内の人口比を重みとして持つ。
+// 市区町村データのない選挙区は、都道府県の指標を重み 1 の1行として補う (データがなければ従来と同じ結果になる)。
+// 集計はすべて配列の添字で行い、ループの中で名前やマップを引かない。
+public class MunicipalityTable {
+    private final PrefectureData[] rowProfile; // 行 -> 指標 (市区町村、または補った都道府県。null なら全国平均)
+    private final double[] rowWeight;          // 行 -> 選挙区内の人口比 (選挙区ごとに合計 1)
+    private final int[] rowDistrict;           // 行 -> 選挙区番号
+    private final int[] districtPrefecture;    // 選挙区 -> 都道府県番号
+    private final int skippedRows;             // 選挙区に対応付けられなかった行数
+
+    private MunicipalityTable(PrefectureData[] rowProfile, double[] rowWeight, int[] rowDistrict,
+                              int[] districtPrefecture, int skippedRows) {
+        this.rowProfile = rowProfile;
+        this.rowWeight = rowWeight;
+        this.rowDistrict = rowDistrict;
+        this.districtPrefecture = districtPrefecture;
+        this.skippedRows = skippedRows;
+    }
+
+    public static MunicipalityTable compile(ElectionData data) {
+        ElectionTable table = data.getTable();
+        int districtCount = table.getDistrictCount();
+        int[] districtPrefecture = table.getDistrictPrefecture().clone();
+
+        // 都道府県ごとの最初の選挙区 (選挙区は都道府県順・区番号順に並んでいる)
+        int prefCount = ElectionData.getPrefectureCount();
+        int[] prefFirst = new int[prefCount + 1];
+        for (int d = 0; d < districtCount; d++) prefFirst[districtPrefecture[d] + 1]++;
+        for (int p = 0; p < prefCount; p++) prefFirst[p + 1] += prefFirst[p];
+
+        // 市区町村 -> 選挙区番号 (対応しなければ -1)
+        List<MunicipalityData> municipalities = data.getMunicipalities();
+        int[] target = new int[municipalities.size()];
+        int[] counts = new int[districtCount + 1];
+        int skipped = 0;
+        for (int i = 0; i < target.length; i++) {
+            MunicipalityData m = municipalities.get(i);
+            int pref = ElectionData.prefectureIdOf(m.getPrefecture());
+            int d = pref < 0 ? -1 : prefFirst[pref] + m.getDistrict() - 1;
+            if (pref < 0 || m.getDistrict() < 1 || d >= prefFirst[pref + 1]) {
+                target[i] = -1;
+                skipped++;
+                continue;
+            }
+            target[i] = d;
+            counts[d + 1]++;
+        }
+
+        // 行のない選挙区には都道府県の行を1つ補う
+        for (int d = 0; d < districtCount; d++) {
+            if (counts[d + 1] == 0) counts[d + 1] = 1;
+        }
+        int[] offsets = new int[districtCount + 1];
+        for (int d = 0; d < districtCount; d++) offsets[d + 1] = offsets[d] + counts[d + 1];
+
+        int rows = offsets[districtCount];
+        PrefectureData[] profile = new PrefectureData[rows];
+        double[] weight = new double[rows];
+        int[] rowDistrict = new int[rows];
+        int[] cursor = offsets.clone();
+        for (int i = 0; i < target.length; i++) {
+            int d = target[i];
+            if (d < 0) continue;
+            int row = cursor[d]++;
+            profile[row] = municipalities.get(i);
+            weight[row] = municipalities.get(i).getPopulation();
+        }
+        for (int d = 0; d < districtCount; d++) {
+            for (int row = offsets[d]; row < offsets[d + 1]; row++) rowDistrict[row] = d;
+            if (cursor[d] == offsets[d]) {
+                profile[offsets[d]] = data.getPrefecture(districtPrefecture[d]);
+                weight[offsets[d]] = 1.0;
+                continue;
+            }
+            normalize(weight, offsets[d], offsets[d + 1]);
+        }
+        return new MunicipalityTable(profile, weight, rowDistrict, districtPrefecture, skipped);
+    }
+
+    // 人口比にする (人口が入っていなければ均等)
+    private static void normalize(double[] weight, int from, int to) {
+        double total = 0;
+        for (int i = from; i < to; i++) total += weight[i];
+        for (int i = from; i < to; i++) weight[i] = total > 0 ? weight[i] / total : 1.0 / (to - from);
+    }
+
+    public int getRowCount() { return rowProfile.length; }
+    public int getDistrictCount() { return districtPrefecture.length; }
+    public int getSkippedRows() { return skippedRows; }
+
+    public PrefectureData getProfile(int row) { return rowProfile[row]; }
+    public double getWeight(int row) { return rowWeight[row]; }
+    public int getDistrict(int row) { return rowDistrict[row]; }
+    public int getPrefecture(int district) { return districtPrefecture[district]; }
+
+    // 行ごとの値 [行 * width + k] を人口比で選挙区ごとに合計する -> out[選挙区 * width + k]
+    public void toDistricts(double[] rowValues, int width, double[] out) {
+        Arrays.fill(out, 0, districtPrefecture.length * width, 0.0);
+        for (int row = 0; row < rowProfile.length; row++) {
+            int src = row * width;
+            int dst = rowDistrict[row] * width;
+            double w = rowWeight[row];
+            for (int k = 0; k < width; k++) out[dst + k] += w * rowValues[src + k];
+        }
+    }
+
+    // 選挙区ごとの値 [選挙区 * width + k] を都道府県ごとに合計する -> out[都道府県 * width + k]
+    public void toPrefectures(int[] districtValues, int width, int[] out) {
+        Arrays.fill(out, 0, ElectionData.getPrefectureCount() * width, 0);
+        for (int d = 0; d < districtPrefecture.length; d++) {
+            int src = d * width;
+            int dst = districtPrefecture[d] * width;
+            for (int k = 0; k < width; k++) out[dst + k] += districtValues[src + k];
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package jp.el;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+// パラメータスイープ (感度分析)
+// 1〜2本の軸 (政党の基礎人気、ScoringModel の係数) の格子点ごとにモンテカルロを実行し、
+// 期待議席・過半数確率・与党入り確率の面を作る。
+// 地域補正の項は run() の最初に ScoreTerms として一度だけ計算し、格子点ごとには掛け算と足し算で ScoreTable を作り直すだけ。
+// (run() ごとに計算し直すので、ElectionData.setScoringModel の後は新しいルールで実行される)
+// 格子点は fork-join で並列に実行する (各格子点の試行もさらに同じプールで分割される)。
+// 全格子点で同じシードを使う (共通乱数) ので、隣り合う格子点の差は乱数の揺らぎではなくパラメータの差になる。
+public class ParameterSweep {
+
+    // スイープする軸
+    public static final class Axis {
+        private final String label;
+        private final int party;                          // 基礎人気の軸なら政党番号、それ以外は -1
+        private final String coefficient;                 // 係数の軸なら項のキー
+        private final double[] values;
+
+        private Axis(String label, int party, String coefficient, double[] values) {
+            if (values.length == 0) throw new IllegalArgumentException("axis has no values: " + label);
+            this.label = label;
+            this.party = party;
+            this.coefficient = coefficient;
+            this.values = values.clone();
+        }
+
+        // 政党の基礎人気 (Party.popularity)
+        public static Axis popularity(ElectionData data, String partyName, double... values) {
+            List<Party> parties = data.getTable().getPartyList();
+            for (int p = 0; p < parties.size(); p++) {
+                if (parties.get(p).getName().equals(partyName)) {
+                    return new Axis(partyName + " 支持率", p, null, values);
+                }
+            }
+            throw new IllegalArgumentException("unknown party: " + partyName);
+        }
+
+        // 地域補正の係数 (key は scoring.json の項のキー)
+        public static Axis coefficient(ElectionData data, String key, double... values) {
+            ScoringModel model = data.getScoringModel();
+            int term = model.indexOf(key);
+            if (term < 0) throw new IllegalArgumentException("unknown coefficient: " + key);
+            return new Axis(model.getLabel(term), -1, key, values);
+        }
+
+        // from から to まで steps 点 (両端を含む)
+        public static double[] range(double from, double to, int steps) {
+            if (steps < 2) return new double[]{from};
+            double[] values = new double[steps];
+            for (int i = 0; i < steps; i++) values[i] = from + (to - from) * i / (steps - 1);
+            return values;
+        }
+
+        public String getLabel() { return label; }
+        public int size() { return values.length; }
+        public double getValue(int i) { return values[i]; }
+        public double[] getValues() { return values.clone(); }
+
+        // 実行時のモデルで係数の位置を確かめる (軸を作った後にモデルが差し替えられた場合)
+        void check(ScoringModel model) {
+            if (coefficient != null && model.indexOf(coefficient) < 0) {
+                throw new IllegalArgumentException("unknown coefficient in current scoring model: " + coefficient);
+            }
+        }
+
+        void apply(ScoringModel model, double value, double[] popularity, double[] coefficients) {
+            if (coefficient != null) coefficients[model.indexOf(coefficient)] = value;
+            else popularity[party] = value;
+        }
+    }
+
+    private final ElectionData data;
+    private final SimulationEngine engine;
+
+    public ParameterSweep(ElectionData data) {
+        this(data, ForkJoinPool.commonPool());
+    }
+
+    public ParameterSweep(ElectionData data, ForkJoinPool pool) {
+        this.data = data;
+        this.engine = new SimulationEngine(data, pool);
+    }
+
+    public SweepResult run(Axis x, Axis y, int trials, long seed) {
+        return run(x, y, trials, seed, SimulationEngine.Monitor.NONE);
+    }
+
+    // y は null なら1次元。進捗は格子点単位で通知する。中止された場合は CancellationException
+    public SweepResult run(Axis x, Axis y, int trials, long seed, SimulationEngine.Monitor monitor) {
+        int ny = y == null ? 1 : y.size();
+        int points = x.size() * ny;
+        int partyCount = data.getTable().getPartyCount();
+        SimulationResult[] results = new SimulationResult[points];
+        SimulationContext context = new SimulationContext(seed);
+        ScoreTerms terms = ScoreTerms.compile(data);
+        double[] basePopularity = terms.getPopularity();
+        ScoringModel model = terms.getModel();
+        double[] baseCoefficients = model.getCoefficients();
+        x.check(model);
+        if (y != null) y.check(model);
+        AtomicLong done = new AtomicLong();
+
+        engine.getPool().invoke(new PointTask(0, points, point -> {
+            if (monitor.isCancelled()) throw new CancellationException();
+            double[] popularity = basePopularity.clone();
+            double[] coefficients = baseCoefficients.clone();
+            x.apply(model, x.getValue(point / ny), popularity, coefficients);
+            if (y != null) y.apply(model, y.getValue(point % ny), popularity, coefficients);
+
+            ScoreTable scores = terms.toScoreTable(popularity, coefficients);
+            results[point] = engine.run(trials, context, scores, SimulationEngine.Monitor.NONE);
+            monitor.progress(done.incrementAndGet(), points);
+        }));
+
+        double[][] expected = new double[points][partyCount];
+        double[][] majority = new double[points][partyCount];
+        double[][] government = new double[points][partyCount];
+        for (int i = 0; i < points; i++) {
+            for (int p = 0; p < partyCount; p++) {
+                expected[i][p] = results[i].getExpectedSeats(p);
+                majority[i][p] = results[i].getMajorityProbability(p);
+                government[i][p] = results[i].getGovernmentProbability(p);
+            }
+        }
+        return new SweepResult(x, y, data.getTable().getPartyList(), trials, seed, expected, majority, government);
+    }
+
+    // 格子点の範囲を半分ずつに分けて実行する
+    private static final class PointTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final IntConsumer body;
+
+        PointTask(int from, int to, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.accept(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new PointTask(from, mid, body), new PointTask(mid, to, body));
+        }
+    }
+}
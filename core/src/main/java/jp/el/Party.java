@@ -8,7 +8,10 @@ public class Party {
     private int popularity;
     private String description;
     private Map<String, Integer> ideologies;
-    private int seats;
+    private double[] ideologyVector; // IdeologyAxis 順 (データがなければ null)
+    private int id = -1;             // 読み込み順の番号 (ElectionTable / CooperationMatrix の添字)
+    private int seats;               // 小選挙区 + 比例
+    private int proportionalSeats;   // seats のうち比例の分
 
     // ★追加: 与党かどうかを判定するフラグ
     private boolean isGovernment;
@@ -19,24 +22,25 @@ public class Party {
         this.popularity = popularity;
         this.description = description;
         this.ideologies = ideologies;
+        this.ideologyVector = IdeologyAxis.toVector(ideologies);
         this.seats = 0;
         this.isGovernment = false;
     }
 
-    // 協力度計算（既存のまま）
+    // 協力度計算 (イデオロギー空間でのユークリッド距離を 0~100 に変換)
+    // 画面やシミュレーションでは CooperationMatrix の計算済みの値を使うこと
     public double calculateCooperation(Party other) {
-        if (this.ideologies == null || other.getIdeologies() == null) {
+        return cooperation(this.ideologyVector, other.ideologyVector);
+    }
+
+    static double cooperation(double[] a, double[] b) {
+        if (a == null || b == null) {
             return 0.0;
         }
-        String[] axes = {
-                "保守", "リベラル", "ポピュリズム", "リバタリアニズム",
-                "環境主義", "積極財政", "緊縮財政", "ナショナリズム"
-        };
         double sumSquaredDiff = 0.0;
-        for (String axis : axes) {
-            int val1 = this.ideologies.getOrDefault(axis, 0);
-            int val2 = other.getIdeologies().getOrDefault(axis, 0);
-            sumSquaredDiff += Math.pow(val1 - val2, 2);
+        for (int i = 0; i < a.length; i++) {
+            double diff = a[i] - b[i];
+            sumSquaredDiff += diff * diff;
         }
         double distance = Math.sqrt(sumSquaredDiff);
         double maxDistance = 56.5;
@@ -49,10 +53,16 @@ public class Party {
     }
 
     public void addSeat() { this.seats++; }
+    public void setSeats(int seats) { this.seats = seats; }
+    public void setSeats(int seats, int proportionalSeats) {
+        this.seats = seats;
+        this.proportionalSeats = proportionalSeats;
+    }
 
     // リセット時に与党フラグも戻す
     public void reset() {
         this.seats = 0;
+        this.proportionalSeats = 0;
         this.isGovernment = false;
     }
 
@@ -61,7 +71,12 @@ public class Party {
     public int getPopularity() { return popularity; }
     public String getDescription() { return description; }
     public Map<String, Integer> getIdeologies() { return ideologies; }
+    public double[] getIdeologyVector() { return ideologyVector; }
+    public int getId() { return id; }
+    void setId(int id) { this.id = id; }
     public int getSeats() { return seats; }
+    public int getProportionalSeats() { return proportionalSeats; }
+    public int getDistrictSeats() { return seats - proportionalSeats; }
 
     // ★追加: 与党フラグのGetter/Setter
     public boolean isGovernment() { return isGovernment; }
@@ -0,0 +1,47 @@
+package jp.el;
+
+// 衆議院の比例代表ブロック (11ブロック・176議席)
+// 都道府県番号 (ElectionData の並び) からブロック番号を引けるようにしておく
+public final class ProportionalBlocks {
+    private static final String[] NAMES = {
+            "北海道", "東北", "北関東", "南関東", "東京", "北陸信越", "東海", "近畿", "中国", "四国", "九州"
+    };
+    private static final int[] SEATS = {8, 12, 19, 23, 19, 10, 21, 28, 10, 6, 20};
+    private static final String[][] PREFECTURES = {
+            {"北海道"},
+            {"青森県", "岩手県", "宮城県", "秋田県", "山形県", "福島県"},
+            {"茨城県", "栃木県", "群馬県", "埼玉県"},
+            {"千葉県", "神奈川県", "山梨県"},
+            {"東京都"},
+            {"新潟県", "富山県", "石川県", "福井県", "長野県"},
+            {"岐阜県", "静岡県", "愛知県", "三重県"},
+            {"滋賀県", "京都府", "大阪府", "兵庫県", "奈良県", "和歌山県"},
+            {"鳥取県", "島根県", "岡山県", "広島県", "山口県"},
+            {"徳島県", "香川県", "愛媛県", "高知県"},
+            {"福岡県", "佐賀県", "長崎県", "熊本県", "大分県", "宮崎県", "鹿児島県", "沖縄県"}
+    };
+
+    public static final int BLOCK_COUNT = NAMES.length;
+    public static final int TOTAL_SEATS;
+
+    // 都道府県番号 -> ブロック番号
+    private static final int[] PREFECTURE_BLOCK = new int[ElectionData.getPrefectureCount()];
+
+    static {
+        int total = 0;
+        for (int s : SEATS) total += s;
+        TOTAL_SEATS = total;
+
+        java.util.Arrays.fill(PREFECTURE_BLOCK, -1);
+        for (int b = 0; b < BLOCK_COUNT; b++) {
+            for (String pref : PREFECTURES[b]) PREFECTURE_BLOCK[ElectionData.prefectureIdOf(pref)] = b;
+        }
+    }
+
+    private ProportionalBlocks() {}
+
+    public static String getName(int block) { return NAMES[block]; }
+    public static int getSeats(int block) { return SEATS[block]; }
+
+    public static int blockOf(int prefectureId) { return PREFECTURE_BLOCK[prefectureId]; }
+}
@@ -0,0 +1,57 @@
+package jp.el;
+
+import java.util.Arrays;
+
+// 比例代表の集計と議席配分
+// 比例の票は別に投票させず、小選挙区で各党の候補者が得た票をその党の比例票とみなして、ブロックごとに合算する。
+// 候補者を立てていない選挙区ではその党の票は 0。無所属は比例に参加しない。
+// 候補者 -> (ブロック, 政党) の添字を事前計算しておくので、集計は候補者1人につき足し算1回。
+// 作業用の配列を持つのでスレッド間で共有しないこと (モンテカルロではワーカーごとに作る)。
+public class ProportionalEngine {
+    private static final String INDEPENDENT = "無所属";
+
+    private final int partyCount;
+    private final int[] candidateSlot; // 候補者 -> ブロック * 政党数 + 政党 (比例に参加しなければ -1)
+    private final int[] blockVotes;    // [ブロック * 政党数 + 政党]
+    private final int[] blockSeats;    // [ブロック * 政党数 + 政党]
+    private final DHondtAllocator allocator;
+
+    public ProportionalEngine(ElectionTable table) {
+        this.partyCount = table.getPartyCount();
+        int[] offsets = table.getDistrictOffsets();
+        int[] candidateParty = table.getCandidateParty();
+        this.candidateSlot = new int[table.getCandidateCount()];
+        for (int d = 0; d < table.getDistrictCount(); d++) {
+            int block = ProportionalBlocks.blockOf(table.getDistrictPrefecture(d));
+            for (int c = offsets[d]; c < offsets[d + 1]; c++) {
+                int p = candidateParty[c];
+                boolean eligible = block >= 0 && !table.getParty(p).getName().equals(INDEPENDENT);
+                candidateSlot[c] = eligible ? block * partyCount + p : -1;
+            }
+        }
+        this.blockVotes = new int[ProportionalBlocks.BLOCK_COUNT * partyCount];
+        this.blockSeats = new int[blockVotes.length];
+        this.allocator = new DHondtAllocator(partyCount);
+    }
+
+    // votes は候補者番号順の票数。政党ごとの比例の議席数を seats (政党番号順) に書く
+    // 開票途中の票数を渡せば、その時点の配分になる
+    public void allocate(int[] votes, int[] seats) {
+        Arrays.fill(blockVotes, 0);
+        for (int c = 0; c < candidateSlot.length; c++) {
+            int slot = candidateSlot[c];
+            if (slot >= 0) blockVotes[slot] += votes[c];
+        }
+
+        Arrays.fill(seats, 0, partyCount, 0);
+        for (int b = 0; b < ProportionalBlocks.BLOCK_COUNT; b++) {
+            int from = b * partyCount;
+            allocator.allocate(blockVotes, from, partyCount, ProportionalBlocks.getSeats(b), blockSeats);
+            for (int p = 0; p < partyCount; p++) seats[p] += blockSeats[from + p];
+        }
+    }
+
+    // 直前の allocate のブロック別の得票・議席
+    public int getBlockVotes(int block, int party) { return blockVotes[block * partyCount + party]; }
+    public int getBlockSeats(int block, int party) { return blockSeats[block * partyCount + party]; }
+}
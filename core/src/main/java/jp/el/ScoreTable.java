@@ -0,0 +1,28 @@
+package jp.el;
+
+// 候補者ごとの基礎スコア (ScoringModel による基礎人気 + 地域補正) を事前計算したテーブル
+// 添字は ElectionTable の候補者番号 (選挙区ごとに連続) と同じ。
+// 試行ごとに変わるのはランダム係数 R だけなので、1試行あたり候補者1人につき掛け算1回で済む。
+// 政党・都道府県データは読み込み後に変わらないので、作り直すのは ElectionData.setScoringModel でモデルを差し替えたときだけ。
+public class ScoreTable {
+    private final double[] baseScores;
+
+    private ScoreTable(double[] baseScores) {
+        this.baseScores = baseScores;
+    }
+
+    public static ScoreTable compile(ElectionData data) {
+        return ScoreTerms.compile(data).toScoreTable();
+    }
+
+    // 計算済みのスコアから作る (ScoreTerms 用)
+    static ScoreTable of(double[] baseScores) {
+        return new ScoreTable(baseScores);
+    }
+
+    public double getBaseScore(int candidate) { return baseScores[candidate]; }
+
+    // 読み取り専用として扱うこと (コピーせずに返す)
+    public double[] getBaseScores() { return baseScores; }
+
+}
@@ -0,0 +1,80 @@
+package jp.el;
+
+import java.util.List;
+
+// 候補者ごとの地域補正の項 (係数を掛ける前の値) を事前計算したもの
+// ScoringModel の条件を 選挙区×項、政党の値を 政党×項 の行列にしてから、候補者ごとに掛け合わせておく。
+// 選挙区の条件は市区町村ごとの条件 (0/1) を人口比で平均したもの (MunicipalityTable)。
+// 例えば人口の3割が第1次産業の多い町なら、その項は 0.3 だけ効く。
+// 基礎スコア = 政党の基礎人気 + Σ 係数 × 項 なので、支持率や係数を変えて ScoreTable を作り直すときに
+// 条件判定をやり直さずに済む (ScoreTable.compile とパラメータスイープの格子点ごとに使う)。
+public class ScoreTerms {
+    private final ScoringModel model;
+    private final int[] candidateParty;
+    private final double[] terms; // [候補者 * 項数 + 項]
+    private final double[] popularity; // 政党ごとの基礎人気 (読み込み時の値)
+
+    private ScoreTerms(ScoringModel model, int[] candidateParty, double[] terms, double[] popularity) {
+        this.model = model;
+        this.candidateParty = candidateParty;
+        this.terms = terms;
+        this.popularity = popularity;
+    }
+
+    public static ScoreTerms compile(ElectionData data) {
+        return compile(data, data.getScoringModel());
+    }
+
+    public static ScoreTerms compile(ElectionData data, ScoringModel model) {
+        ElectionTable table = data.getTable();
+        int[] offsets = table.getDistrictOffsets();
+        int[] candidateParty = table.getCandidateParty();
+        int k = model.getTermCount();
+
+        // 市区町村×項 の条件 (0/1) を人口比で 選挙区×項 にまとめる
+        MunicipalityTable regions = data.getMunicipalityTable();
+        double[] rowConditions = new double[regions.getRowCount() * k];
+        for (int row = 0; row < regions.getRowCount(); row++) model.conditions(regions.getProfile(row), rowConditions, row * k);
+        double[] conditions = new double[table.getDistrictCount() * k];
+        regions.toDistricts(rowConditions, k, conditions);
+
+        // 政党×項 の値
+        int partyCount = table.getPartyCount();
+        double[] values = new double[partyCount * k];
+        for (int p = 0; p < partyCount; p++) model.values(table.getParty(p), values, p * k);
+
+        double[] terms = new double[table.getCandidateCount() * k];
+        for (int d = 0; d < table.getDistrictCount(); d++) {
+            int districtRow = d * k;
+            for (int c = offsets[d]; c < offsets[d + 1]; c++) {
+                int partyRow = candidateParty[c] * k;
+                for (int t = 0; t < k; t++) terms[c * k + t] = conditions[districtRow + t] * values[partyRow + t];
+            }
+        }
+
+        List<Party> parties = table.getPartyList();
+        double[] popularity = new double[parties.size()];
+        for (int p = 0; p < popularity.length; p++) popularity[p] = parties.get(p).getPopularity();
+        return new ScoreTerms(model, candidateParty, terms, popularity);
+    }
+
+    public ScoringModel getModel() { return model; }
+
+    // 政党ごとの基礎人気の初期値 (コピー)
+    public double[] getPopularity() { return popularity.clone(); }
+
+    // モデルの係数そのままの ScoreTable
+    public ScoreTable toScoreTable() {
+        return toScoreTable(popularity, model.getCoefficients());
+    }
+
+    // popularity は政党番号順、coefficients は ScoringModel の項の順
+    public ScoreTable toScoreTable(double[] popularity, double[] coefficients) {
+        int k = model.getTermCount();
+        double[] scores = new double[candidateParty.length];
+        for (int c = 0; c < scores.length; c++) {
+            scores[c] = ScoringModel.combine(popularity[candidateParty[c]], terms, c * k, coefficients);
+        }
+        return ScoreTable.of(scores);
+    }
+}
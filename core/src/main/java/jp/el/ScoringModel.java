@@ -0,0 +1,243 @@
+package jp.el;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// 地域補正のルール (README の ΔIndustry + ΔEconomy + ΔDemo)
+// scoring.json から読み込むので、係数や閾値を変えるのに再コンパイルは要らない。
+// 1つの項は「地域の条件 (field op value)」と「政党の値 (イデオロギー軸の値、または定数)」と係数の組。
+//   基礎スコア = 基礎人気 + Σ 係数[t] × 条件[地域][t] × 値[政党][t]   (項の並び順に加算)
+// 条件は地域 (市区町村・都道府県) だけ、値は政党だけで決まるので、それぞれ 地域×項 / 政党×項 の行列にしてから掛け合わせる (ScoreTerms)。
+// ElectionData.setScoringModel で実行中に差し替えられる。
+public class ScoringModel {
+    // 既定のモデルの場所 (parties.json と同じリソース)。-Djp.el.scoringModel=ファイルパス で差し替えられる
+    private static final String RESOURCE = "/scoring.json";
+    private static final String PROPERTY = "jp.el.scoringModel";
+
+    // 都道府県データの項目 (データがない都道府県は全国平均の値で判定する)
+    private enum Field {
+        PRIMARY("primary", SupportModel.DEFAULT_PRIMARY),
+        SECONDARY("secondary", SupportModel.DEFAULT_SECONDARY),
+        TERTIARY("tertiary", SupportModel.DEFAULT_TERTIARY),
+        INCOME("income", SupportModel.DEFAULT_INCOME),
+        ELDERLY("elderly", SupportModel.DEFAULT_ELDERLY);
+
+        private final String key;
+        private final double defaultValue;
+
+        Field(String key, double defaultValue) {
+            this.key = key;
+            this.defaultValue = defaultValue;
+        }
+
+        double of(PrefectureData pref) {
+            if (pref == null) return defaultValue;
+            switch (this) {
+                case PRIMARY: return pref.getPrimary();
+                case SECONDARY: return pref.getSecondary();
+                case TERTIARY: return pref.getTertiary();
+                case INCOME: return pref.getIncome();
+                default: return pref.getElderly();
+            }
+        }
+
+        static Field fromKey(String key) {
+            for (Field f : values()) {
+                if (f.key.equals(key)) return f;
+            }
+            throw new IllegalArgumentException("unknown field: " + key);
+        }
+    }
+
+    private enum Op {
+        GT(">"), GE(">="), LT("<"), LE("<=");
+
+        private final String symbol;
+
+        Op(String symbol) {
+            this.symbol = symbol;
+        }
+
+        boolean test(double a, double b) {
+            switch (this) {
+                case GT: return a > b;
+                case GE: return a >= b;
+                case LT: return a < b;
+                default: return a <= b;
+            }
+        }
+
+        static Op fromSymbol(String symbol) {
+            for (Op op : values()) {
+                if (op.symbol.equals(symbol)) return op;
+            }
+            throw new IllegalArgumentException("unknown op: " + symbol);
+        }
+    }
+
+    // JSONマッピング用DTO
+    public static class ModelDTO {
+        public String name;
+        public String description;
+        public List<TermDTO> terms;
+    }
+
+    public static class TermDTO {
+        public String key;
+        public String label;
+        public ConditionDTO when;          // 省略時は全都道府県
+        public String axis;                // イデオロギー軸の名前 (IdeologyAxis のラベル)
+        public String partyNameContains;   // axis がない項は、この文字列を名前に含む政党に 1 (省略時は全政党)
+        public double coefficient;
+    }
+
+    public static class ConditionDTO {
+        public String field;
+        public String op;
+        public double value;
+    }
+
+    private final String name;
+    private final String[] keys;
+    private final String[] labels;
+    private final double[] coefficients;
+    private final Field[] fields;        // 条件のない項は null
+    private final Op[] ops;
+    private final double[] thresholds;
+    private final int[] axes;            // IdeologyAxis.ordinal()、定数の項は -1
+    private final String[] partyFilters; // 定数の項の政党名フィルタ (null なら全政党)
+
+    private ScoringModel(ModelDTO dto) {
+        List<TermDTO> terms = dto.terms != null ? dto.terms : Collections.emptyList();
+        int k = terms.size();
+        this.name = dto.name != null ? dto.name : "";
+        this.keys = new String[k];
+        this.labels = new String[k];
+        this.coefficients = new double[k];
+        this.fields = new Field[k];
+        this.ops = new Op[k];
+        this.thresholds = new double[k];
+        this.axes = new int[k];
+        this.partyFilters = new String[k];
+
+        for (int t = 0; t < k; t++) {
+            TermDTO term = terms.get(t);
+            if (term.key == null) throw new IllegalArgumentException("term " + t + " has no key");
+            for (int u = 0; u < t; u++) {
+                if (keys[u].equals(term.key)) throw new IllegalArgumentException("duplicate key: " + term.key);
+            }
+            keys[t] = term.key;
+            labels[t] = term.label != null ? term.label : term.key;
+            coefficients[t] = term.coefficient;
+            if (term.when != null) {
+                fields[t] = Field.fromKey(term.when.field);
+                ops[t] = Op.fromSymbol(term.when.op);
+                thresholds[t] = term.when.value;
+            }
+            if (term.axis != null) {
+                IdeologyAxis axis = IdeologyAxis.fromLabel(term.axis);
+                if (axis == null) throw new IllegalArgumentException("unknown axis: " + term.axis);
+                axes[t] = axis.ordinal();
+            } else {
+                axes[t] = -1;
+                partyFilters[t] = term.partyNameContains;
+            }
+        }
+    }
+
+    public static ScoringModel read(InputStream in) throws IOException {
+        ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return new ScoringModel(mapper.readValue(in, ModelDTO.class));
+    }
+
+    public static ScoringModel load(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return read(in);
+        }
+    }
+
+    // 既定のモデル。読み込めなければ地域補正なし (基礎人気だけ) のモデルにする
+    public static ScoringModel loadDefault() {
+        String override = System.getProperty(PROPERTY);
+        try {
+            if (override != null) return load(Path.of(override));
+            try (InputStream in = ScoringModel.class.getResourceAsStream(RESOURCE)) {
+                if (in != null) return read(in);
+            }
+            System.err.println("scoring.json が見つからないため地域補正なしで計算します");
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("スコアリングモデルの読み込みに失敗: " + e.getMessage());
+        }
+        return new ScoringModel(new ModelDTO());
+    }
+
+    public String getName() { return name; }
+    public int getTermCount() { return keys.length; }
+    public String getKey(int term) { return keys[term]; }
+    public String getLabel(int term) { return labels[term]; }
+    public double getCoefficient(int term) { return coefficients[term]; }
+
+    // 係数 (項の順、コピー)
+    public double[] getCoefficients() { return coefficients.clone(); }
+
+    public List<String> getKeys() { return Collections.unmodifiableList(Arrays.asList(keys)); }
+
+    // 見つからなければ -1
+    public int indexOf(String key) {
+        for (int t = 0; t < keys.length; t++) {
+            if (keys[t].equals(key)) return t;
+        }
+        return -1;
+    }
+
+    // 地域の条件の行 (項ごとに 1 か 0) を out[offset..] に書く。pref は市区町村でもよい。null なら全国平均で判定する
+    void conditions(PrefectureData pref, double[] out, int offset) {
+        for (int t = 0; t < keys.length; t++) {
+            boolean hit = fields[t] == null || ops[t].test(fields[t].of(pref), thresholds[t]);
+            out[offset + t] = hit ? 1.0 : 0.0;
+        }
+    }
+
+    // 政党の値の行を out[offset..] に書く。イデオロギーデータのない政党は補正なし (全部 0)
+    void values(Party p, double[] out, int offset) {
+        double[] ideology = p.getIdeologyVector(); // 0~20のスコア (IdeologyAxis 順)
+        for (int t = 0; t < keys.length; t++) {
+            if (ideology == null) out[offset + t] = 0.0;
+            else if (axes[t] >= 0) out[offset + t] = ideology[axes[t]];
+            else out[offset + t] = partyFilters[t] == null || p.getName().contains(partyFilters[t]) ? 1.0 : 0.0;
+        }
+    }
+
+    // 基礎人気 + Σ 係数 × 項 (terms[offset..] は条件 × 値を掛けたもの)
+    static double combine(double popularity, double[] terms, int offset, double[] coefficients) {
+        double score = popularity;
+        for (int t = 0; t < coefficients.length; t++) score += coefficients[t] * terms[offset + t];
+        return score;
+    }
+
+    // 1候補者分の基礎スコア (ランダム係数 R 以外の部分)。まとめて計算するときは ScoreTerms を使う
+    public double baseScore(Party p, PrefectureData pref) {
+        int k = keys.length;
+        double[] row = new double[k * 2];
+        conditions(pref, row, 0);
+        values(p, row, k);
+        for (int t = 0; t < k; t++) row[t] *= row[k + t];
+        return combine(p.getPopularity(), row, 0, coefficients);
+    }
+
+    @Override
+    public String toString() {
+        List<String> terms = new ArrayList<>(keys.length);
+        for (int t = 0; t < keys.length; t++) terms.add(keys[t] + "=" + coefficients[t]);
+        return name + " " + terms;
+    }
+}
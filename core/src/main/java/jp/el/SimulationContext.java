@@ -0,0 +1,36 @@
+package jp.el;
+
+import java.util.SplittableRandom;
+
+// シード付きの乱数ストリームを配るコンテキスト
+// 試行ごとのストリームは (シード, 試行番号) だけから決まるので、
+// どのスレッドがどの順番で試行を実行しても同じシードなら結果はビット単位で一致する。
+// 共有の Random を使わないのでスレッド間の競合もない。
+public class SimulationContext {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+
+    public SimulationContext(long seed) {
+        this.seed = seed;
+    }
+
+    // シード未指定の実行用 (使ったシードは getSeed() で取得して再現できる)
+    public static SimulationContext random() {
+        return new SimulationContext(new SplittableRandom().nextLong());
+    }
+
+    public long getSeed() { return seed; }
+
+    // 試行番号 trial 専用の乱数ストリーム
+    public SplittableRandom trialRandom(long trial) {
+        return new SplittableRandom(mix64(seed + (trial + 1) * GOLDEN_GAMMA));
+    }
+
+    // SplitMix64 の出力関数 (近い入力から相関のない値を作る)
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,348 @@
+package jp.el;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+// UIに依存しないモンテカルロ選挙エンジン
+// ResultView.runSimulation と同じルールで N 回の独立した選挙を fork-join で並列実行し、
+// 政党ごとの議席数 (小選挙区 + 比例代表) の分布と、試行ごとに CoalitionSolver で決めた政権の形の頻度を集計する。
+// Party / Candidate の状態は一切書き換えない。
+// 各試行は SimulationContext から試行番号ごとの乱数ストリームを受け取るので、
+// 同じシードなら並列度に関係なく同じ結果になる。
+public class SimulationEngine {
+    // 1タスクあたりの試行数 (これ以下になったら分割せずに実行)
+    private static final int TRIALS_PER_TASK = 256;
+    // 進捗の通知・中止の確認をする間隔 (試行数 / 選挙区数)
+    private static final int TRIALS_PER_REPORT = 64;
+    private static final int DISTRICTS_PER_REPORT = 16;
+
+    // 進捗の通知先と中止の問い合わせ (JavaFX の Task などから渡す。どのスレッドからも呼ばれる)
+    public interface Monitor {
+        Monitor NONE = new Monitor() {
+            @Override public boolean isCancelled() { return false; }
+            @Override public void progress(long done, long total) { }
+        };
+
+        boolean isCancelled();
+        void progress(long done, long total);
+    }
+
+    private final ElectionData data;
+    private final ForkJoinPool pool;
+
+    public SimulationEngine(ElectionData data) {
+        this(data, ForkJoinPool.commonPool());
+    }
+
+    public SimulationEngine(ElectionData data, ForkJoinPool pool) {
+        this.data = data;
+        this.pool = pool;
+    }
+
+    ForkJoinPool getPool() { return pool; }
+
+    public SimulationResult run(int trials) {
+        return run(trials, SimulationContext.random());
+    }
+
+    public SimulationResult run(int trials, long seed) {
+        return run(trials, new SimulationContext(seed));
+    }
+
+    public SimulationResult run(int trials, SimulationContext context) {
+        return run(trials, context, Monitor.NONE);
+    }
+
+    // 中止された場合は CancellationException を投げる
+    public SimulationResult run(int trials, SimulationContext context, Monitor monitor) {
+        return run(trials, context, data.getScoreTable(), monitor);
+    }
+
+    // 基礎スコアを差し替えて実行する (パラメータスイープ用)
+    // 同じプールのタスクの中から呼ばれた場合はそのまま分割実行する (格子点ごとの並列実行)
+    public SimulationResult run(int trials, SimulationContext context, ScoreTable scores, Monitor monitor) {
+        if (trials <= 0) throw new IllegalArgumentException("trials must be positive: " + trials);
+
+        Model model = new Model(data, scores);
+        TrialTask task = new TrialTask(model, context, 0, trials, monitor, new AtomicLong(), trials);
+        Tally tally = ForkJoinTask.getPool() == pool ? task.invoke() : pool.invoke(task);
+        return new SimulationResult(model.parties, model.totalSeats(), trials, context.getSeed(), tally.seatCounts,
+                tally.proportionalSeatSums, tally.coalitionCounts, tally.governmentCounts, tally.singlePartyMajorities, tally.minorityGovernments);
+    }
+
+    // 試行 from..to-1 を並列に実行し、試行ごとの議席数と政権の形を返す (集計はせず、バッチ出力用)
+    // seats[(t - from) * 政党数 + p] に議席数 (小選挙区 + 比例)、governments[t - from] に政権の政党マスクを書く。
+    // 試行番号ごとの乱数は run() と同じなので、同じシード・同じ試行番号なら run() の集計と一致する
+    public void runTrials(int from, int to, SimulationContext context, int[] seats, long[] governments) {
+        runTrials(from, to, context, seats, governments, null);
+    }
+
+    // 選挙区ごとの当選者の政党番号も winners[(t - from) * 選挙区数 + d] に書く版 (null 可。候補者のいない選挙区は -1)
+    public void runTrials(int from, int to, SimulationContext context, int[] seats, long[] governments, byte[] winners) {
+        if (to < from) throw new IllegalArgumentException("to < from: " + from + ".." + to);
+        Model model = new Model(data, data.getScoreTable());
+        int partyCount = model.table.getPartyCount();
+        if (seats.length < (to - from) * partyCount || governments.length < to - from
+                || (winners != null && winners.length < (to - from) * model.districtCount())) {
+            throw new IllegalArgumentException("buffer too small for " + (to - from) + " trials");
+        }
+        pool.invoke(new TrialRowTask(model, context, from, from, to, seats, governments, winners));
+    }
+
+    // 1回分の選挙を行い、票数を votes (候補者番号順) に、議席数 (小選挙区 + 比例) を seats (政党番号順) に書き込む
+    // 画面の「一斉投票を実行」やベンチマークから1回だけ実行する場合に使う
+    public void runElection(RandomGenerator rand, int[] votes, int[] seats) {
+        runElection(rand, votes, seats, null, null);
+    }
+
+    // 比例の議席数も proportionalSeats (政党番号順、null 可) に書き、選挙区単位で進捗を通知する版
+    // 中止された場合は CancellationException
+    public void runElection(RandomGenerator rand, int[] votes, int[] seats, int[] proportionalSeats, Monitor monitor) {
+        Model model = new Model(data, data.getScoreTable());
+        Workspace work = new Workspace(model);
+        model.runElection(rand, seats, work, votes, monitor);
+        if (proportionalSeats != null) {
+            System.arraycopy(work.proportionalSeats, 0, proportionalSeats, 0, work.proportionalSeats.length);
+        }
+    }
+
+    // 1回分の試行に必要な読み取り専用データ (実行開始時にスナップショットを取る)
+    private static final class Model {
+        final ElectionTable table;
+        final List<Party> parties;
+        final double[] baseScores; // 候補者ごとの基礎スコア (ScoreTable)
+        final CooperationMatrix cooperation;
+
+        Model(ElectionData data, ScoreTable scores) {
+            this.table = data.getTable();
+            this.parties = table.getPartyList();
+            this.baseScores = scores.getBaseScores();
+            this.cooperation = data.getCooperationMatrix();
+        }
+
+        int districtCount() { return table.getDistrictCount(); }
+        int totalSeats() { return districtCount() + ProportionalBlocks.TOTAL_SEATS; }
+        int majority() { return totalSeats() / 2 + 1; }
+
+        // 1回分の選挙を行い、小選挙区と比例の議席の合計を seats に書く (比例の内訳は work.proportionalSeats)
+        // monitor は1回だけの実行用。モンテカルロでは null を渡し、試行単位で確認する
+        void runElection(RandomGenerator rand, int[] seats, Workspace work, int[] votes, Monitor monitor) {
+            Arrays.fill(seats, 0);
+            int[] weights = work.weights;
+            int[] offsets = table.getDistrictOffsets();
+            int[] candidateParty = table.getCandidateParty();
+            for (int d = 0; d < districtCount(); d++) {
+                if (monitor != null && d % DISTRICTS_PER_REPORT == 0) {
+                    if (monitor.isCancelled()) throw new CancellationException();
+                    monitor.progress(d, districtCount());
+                }
+                int from = offsets[d];
+                int n = offsets[d + 1] - from;
+                if (n == 0) {
+                    work.winners[d] = -1;
+                    continue;
+                }
+
+                // 投票数（3000〜6000票）
+                int totalVoters = 3000 + rand.nextInt(3000);
+
+                // 基礎スコアは事前計算済みなのでランダム係数を掛けるだけ
+                for (int i = 0; i < n; i++) {
+                    weights[i] = SupportModel.toWeight(baseScores[from + i], SupportModel.randomFactor(rand));
+                }
+
+                // 加重抽選 (多項分布で票数をまとめて引く)
+                VoteSampler.sample(rand, totalVoters, weights, n, votes, from);
+
+                // 勝者判定 (同票の場合は先の候補者)
+                int winner = candidateParty[table.getWinner(d, votes)];
+                work.winners[d] = (byte) winner;
+                seats[winner]++;
+            }
+
+            // 比例代表 (全選挙区の票が出揃ってからブロックごとにドント式で配分)
+            int[] proportional = work.proportionalSeats;
+            work.proportional.allocate(votes, proportional);
+            for (int p = 0; p < proportional.length; p++) seats[p] += proportional[p];
+            if (monitor != null) monitor.progress(districtCount(), districtCount());
+        }
+    }
+
+    // 1回分の選挙の作業領域 (ワーカーごとに作り、試行をまたいで使い回す)
+    private static final class Workspace {
+        final int[] weights;
+        final int[] proportionalSeats;
+        final byte[] winners; // [選挙区] -> 当選者の政党番号 (TrialStore 用)
+        final ProportionalEngine proportional;
+
+        Workspace(Model model) {
+            this.weights = new int[model.table.getMaxCandidates()];
+            this.winners = new byte[model.districtCount()];
+            this.proportionalSeats = new int[model.table.getPartyCount()];
+            this.proportional = new ProportionalEngine(model.table);
+        }
+    }
+
+    // スレッドごとの集計 (タスク終了時にマージする。試行中はロックも共有カウンタも使わない)
+    private static final class Tally {
+        final long[][] seatCounts; // [政党][議席数] -> 回数
+        final long[] proportionalSeatSums; // [政党] -> 比例の議席数の合計
+        final Map<Long, Long> coalitionCounts = new HashMap<>(); // 政権の政党マスク -> 回数
+        final long[] governmentCounts; // [政党] -> 与党になった回数
+        long singlePartyMajorities;    // 単独過半数の回数
+        long minorityGovernments;      // 過半数に届かない政権の回数
+
+        Tally(int partyCount, int totalSeats) {
+            this.seatCounts = new long[partyCount][totalSeats + 1];
+            this.proportionalSeatSums = new long[partyCount];
+            this.governmentCounts = new long[partyCount];
+        }
+
+        void addGovernment(long mask, int[] seats, int majority) {
+            coalitionCounts.merge(mask, 1L, Long::sum);
+            int total = 0;
+            for (long m = mask; m != 0; m &= m - 1) {
+                int p = Long.numberOfTrailingZeros(m);
+                governmentCounts[p]++;
+                total += seats[p];
+            }
+            if (total < majority) minorityGovernments++;
+            else if (Long.bitCount(mask) == 1) singlePartyMajorities++;
+        }
+
+        Tally merge(Tally other) {
+            for (int p = 0; p < seatCounts.length; p++) {
+                long[] dst = seatCounts[p];
+                long[] src = other.seatCounts[p];
+                for (int s = 0; s < dst.length; s++) dst[s] += src[s];
+                governmentCounts[p] += other.governmentCounts[p];
+                proportionalSeatSums[p] += other.proportionalSeatSums[p];
+            }
+            other.coalitionCounts.forEach((mask, count) -> coalitionCounts.merge(mask, count, Long::sum));
+            singlePartyMajorities += other.singlePartyMajorities;
+            minorityGovernments += other.minorityGovernments;
+            return this;
+        }
+    }
+
+    // runTrials 用: 試行ごとの結果を配列の決まった位置に書くだけ (書き込み先が重ならないので同期は要らない)
+    private static final class TrialRowTask extends RecursiveAction {
+        private final Model model;
+        private final SimulationContext context;
+        private final int base; // 出力配列の先頭に対応する試行番号
+        private final int from;
+        private final int to;
+        private final int[] seatsOut;
+        private final long[] governmentsOut;
+        private final byte[] winnersOut; // null なら書かない
+
+        TrialRowTask(Model model, SimulationContext context, int base, int from, int to,
+                     int[] seatsOut, long[] governmentsOut, byte[] winnersOut) {
+            this.model = model;
+            this.context = context;
+            this.base = base;
+            this.from = from;
+            this.to = to;
+            this.seatsOut = seatsOut;
+            this.governmentsOut = governmentsOut;
+            this.winnersOut = winnersOut;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > TRIALS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new TrialRowTask(model, context, base, from, mid, seatsOut, governmentsOut, winnersOut),
+                        new TrialRowTask(model, context, base, mid, to, seatsOut, governmentsOut, winnersOut));
+                return;
+            }
+            int partyCount = model.table.getPartyCount();
+            int[] seats = new int[partyCount];
+            Workspace work = new Workspace(model);
+            int[] votes = model.table.newVoteBuffer();
+            CoalitionSolver solver = new CoalitionSolver(model.parties, model.cooperation, 1);
+            int majority = model.majority();
+            for (int t = from; t < to; t++) {
+                model.runElection(context.trialRandom(t), seats, work, votes, null);
+                System.arraycopy(seats, 0, seatsOut, (t - base) * partyCount, partyCount);
+                governmentsOut[t - base] = solver.formGovernment(seats, majority);
+                if (winnersOut != null) {
+                    int districtCount = work.winners.length;
+                    System.arraycopy(work.winners, 0, winnersOut, (t - base) * districtCount, districtCount);
+                }
+            }
+        }
+    }
+
+    private static final class TrialTask extends RecursiveTask<Tally> {
+        private final Model model;
+        private final SimulationContext context;
+        private final int from;
+        private final int to;
+        private final Monitor monitor;
+        private final AtomicLong done; // 全タスク共通の完了試行数
+        private final long total;
+
+        TrialTask(Model model, SimulationContext context, int from, int to,
+                  Monitor monitor, AtomicLong done, long total) {
+            this.model = model;
+            this.context = context;
+            this.from = from;
+            this.to = to;
+            this.monitor = monitor;
+            this.done = done;
+            this.total = total;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from <= TRIALS_PER_TASK) {
+                return runTrials();
+            }
+            int mid = (from + to) >>> 1;
+            TrialTask left = new TrialTask(model, context, from, mid, monitor, done, total);
+            left.fork();
+            Tally right = new TrialTask(model, context, mid, to, monitor, done, total).compute();
+            return left.join().merge(right);
+        }
+
+        private Tally runTrials() {
+            ElectionTable table = model.table;
+            int partyCount = table.getPartyCount();
+            Tally tally = new Tally(partyCount, model.totalSeats());
+            // ワーカーごとの作業領域 (このタスク内の全試行で使い回す)
+            int[] seats = new int[partyCount];
+            Workspace work = new Workspace(model);
+            int[] votes = table.newVoteBuffer();
+            CoalitionSolver solver = new CoalitionSolver(model.parties, model.cooperation, 1);
+            int majority = model.majority();
+
+            for (int t = from; t < to; t++) {
+                model.runElection(context.trialRandom(t), seats, work, votes, null);
+                for (int p = 0; p < partyCount; p++) {
+                    tally.seatCounts[p][seats[p]]++;
+                    tally.proportionalSeatSums[p] += work.proportionalSeats[p];
+                }
+                tally.addGovernment(solver.formGovernment(seats, majority), seats, majority);
+                if ((t - from + 1) % TRIALS_PER_REPORT == 0) report(TRIALS_PER_REPORT);
+            }
+            report((to - from) % TRIALS_PER_REPORT);
+            return tally;
+        }
+
+        private void report(int trials) {
+            if (monitor == Monitor.NONE) return;
+            if (monitor.isCancelled()) throw new CancellationException();
+            if (trials > 0) monitor.progress(done.addAndGet(trials), total);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package jp.el;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// SimulationEngine の集計結果 (政党ごとの議席数分布と、政権の形の頻度)
+// 議席数は小選挙区と比例代表の合計 (totalSeats は両方の定数の合計)
+// 政党の添字は getParties() の並び (= Party.getId())
+public class SimulationResult {
+    private final List<Party> parties;
+    private final int totalSeats;
+    private final int trials;
+    private final long seed;
+    private final long[][] seatCounts; // [政党][議席数] -> 回数
+    private final long[] proportionalSeatSums;     // [政党] -> 比例の議席数の合計
+    private final Map<Long, Long> coalitionCounts; // 政権の政党マスク -> 回数
+    private final long[] governmentCounts;         // [政党] -> 与党になった回数
+    private final long singlePartyMajorities;
+    private final long minorityGovernments;
+
+    SimulationResult(List<Party> parties, int totalSeats, int trials, long seed, long[][] seatCounts,
+                     long[] proportionalSeatSums, Map<Long, Long> coalitionCounts, long[] governmentCounts,
+                     long singlePartyMajorities, long minorityGovernments) {
+        this.parties = Collections.unmodifiableList(new ArrayList<>(parties));
+        this.totalSeats = totalSeats;
+        this.trials = trials;
+        this.seed = seed;
+        this.seatCounts = seatCounts;
+        this.proportionalSeatSums = proportionalSeatSums;
+        this.coalitionCounts = new HashMap<>(coalitionCounts);
+        this.governmentCounts = governmentCounts;
+        this.singlePartyMajorities = singlePartyMajorities;
+        this.minorityGovernments = minorityGovernments;
+    }
+
+    // 政権の形ごとの回数
+    public static final class CoalitionFrequency {
+        private final long mask;
+        private final List<Party> parties;
+        private final long count;
+        private final double probability;
+
+        CoalitionFrequency(long mask, List<Party> parties, long count, double probability) {
+            this.mask = mask;
+            this.parties = parties;
+            this.count = count;
+            this.probability = probability;
+        }
+
+        public long getMask() { return mask; }
+        public List<Party> getParties() { return parties; }
+        public long getCount() { return count; }
+        public double getProbability() { return probability; }
+    }
+
+    public List<Party> getParties() { return parties; }
+    public int getTotalSeats() { return totalSeats; }
+    public int getTrials() { return trials; }
+    public long getSeed() { return seed; } // 同じシードで run すれば同じ結果になる
+    public int getMajority() { return totalSeats / 2 + 1; }
+
+    public int indexOf(Party party) {
+        for (int i = 0; i < parties.size(); i++) {
+            if (parties.get(i) == party) return i;
+        }
+        return -1;
+    }
+
+    // 議席数ごとの出現回数 (添字 = 議席数)
+    public long[] getSeatCounts(int partyIndex) {
+        return seatCounts[partyIndex].clone();
+    }
+
+    // 議席数ごとの確率 (添字 = 議席数)
+    public double[] getSeatDistribution(int partyIndex) {
+        long[] counts = seatCounts[partyIndex];
+        double[] dist = new double[counts.length];
+        for (int s = 0; s < counts.length; s++) dist[s] = (double) counts[s] / trials;
+        return dist;
+    }
+
+    public double getExpectedSeats(int partyIndex) {
+        long[] counts = seatCounts[partyIndex];
+        double sum = 0;
+        for (int s = 0; s < counts.length; s++) sum += (double) s * counts[s];
+        return sum / trials;
+    }
+
+    // 期待議席のうち比例代表の分
+    public double getExpectedProportionalSeats(int partyIndex) {
+        return (double) proportionalSeatSums[partyIndex] / trials;
+    }
+
+    // P(議席数 >= seats)
+    public double getProbabilityAtLeast(int partyIndex, int seats) {
+        long[] counts = seatCounts[partyIndex];
+        long hit = 0;
+        for (int s = Math.max(0, seats); s < counts.length; s++) hit += counts[s];
+        return (double) hit / trials;
+    }
+
+    // 単独過半数の確率
+    public double getMajorityProbability(int partyIndex) {
+        return getProbabilityAtLeast(partyIndex, getMajority());
+    }
+
+    // 与党になる確率
+    public double getGovernmentProbability(int partyIndex) {
+        return (double) governmentCounts[partyIndex] / trials;
+    }
+
+    // 単独過半数の政権になる確率 (どの政党でも)
+    public double getSinglePartyMajorityProbability() {
+        return (double) singlePartyMajorities / trials;
+    }
+
+    // 協力できる過半数がなく少数与党になる確率
+    public double getMinorityGovernmentProbability() {
+        return (double) minorityGovernments / trials;
+    }
+
+    public long getCoalitionCount(long mask) {
+        return coalitionCounts.getOrDefault(mask, 0L);
+    }
+
+    // 多く成立した順の政権の形 (最大 limit 件)
+    public List<CoalitionFrequency> getTopCoalitions(int limit) {
+        List<CoalitionFrequency> list = new ArrayList<>();
+        coalitionCounts.forEach((mask, count) -> {
+            List<Party> members = new ArrayList<>(Long.bitCount(mask));
+            for (long m = mask; m != 0; m &= m - 1) members.add(parties.get(Long.numberOfTrailingZeros(m)));
+            list.add(new CoalitionFrequency(mask, Collections.unmodifiableList(members), count, (double) count / trials));
+        });
+        list.sort(Comparator.comparingLong(CoalitionFrequency::getCount).reversed()
+                .thenComparingLong(CoalitionFrequency::getMask));
+        return list.size() > limit ? new ArrayList<>(list.subList(0, limit)) : list;
+    }
+}
@@ -0,0 +1,28 @@
+package jp.el;
+
+import java.util.random.RandomGenerator;
+
+// 支持率計算ロジック (README の W_c = (S_base + ΔIndustry + ΔEconomy + ΔDemo) × R)
+// 地域補正のルールは ScoringModel (scoring.json)。ここにはランダム係数 R と整数化の規則だけを置く
+public class SupportModel {
+
+    // 都道府県データがない場合のデフォルト値（全国平均など）
+    static final double DEFAULT_PRIMARY = 4.0;
+    static final double DEFAULT_SECONDARY = 25.0;
+    static final double DEFAULT_TERTIARY = 71.0;
+    static final int DEFAULT_INCOME = 300;
+    static final double DEFAULT_ELDERLY = 29.0;
+
+    private SupportModel() {}
+
+    // ランダムな揺らぎ (+-15%)
+    public static double randomFactor(RandomGenerator rand) {
+        return 0.85 + (rand.nextDouble() * 0.3);
+    }
+
+    // 抽選用の重み (整数化、最低1)
+    public static int toWeight(double score, double randomFactor) {
+        int finalWeight = (int)(score * randomFactor * 10); // 整数化
+        return finalWeight <= 0 ? 1 : finalWeight;
+    }
+}
@@ -0,0 +1,62 @@
+package jp.el;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// ParameterSweep の結果 (格子点 × 政党 の面)
+// 格子点は (x の添字, y の添字) で引く。1次元のスイープでは y の添字は常に 0
+public class SweepResult {
+    private final ParameterSweep.Axis x;
+    private final ParameterSweep.Axis y; // 1次元なら null
+    private final List<Party> parties;
+    private final int trials;
+    private final long seed;
+    private final double[][] expectedSeats;          // [格子点][政党]
+    private final double[][] majorityProbability;    // [格子点][政党]
+    private final double[][] governmentProbability;  // [格子点][政党]
+
+    SweepResult(ParameterSweep.Axis x, ParameterSweep.Axis y, List<Party> parties, int trials, long seed,
+                double[][] expectedSeats, double[][] majorityProbability, double[][] governmentProbability) {
+        this.x = x;
+        this.y = y;
+        this.parties = Collections.unmodifiableList(new ArrayList<>(parties));
+        this.trials = trials;
+        this.seed = seed;
+        this.expectedSeats = expectedSeats;
+        this.majorityProbability = majorityProbability;
+        this.governmentProbability = governmentProbability;
+    }
+
+    public ParameterSweep.Axis getX() { return x; }
+    public ParameterSweep.Axis getY() { return y; }
+    public int getXSize() { return x.size(); }
+    public int getYSize() { return y == null ? 1 : y.size(); }
+    public List<Party> getParties() { return parties; }
+    public int getTrials() { return trials; }
+    public long getSeed() { return seed; }
+
+    private int point(int ix, int iy) { return ix * getYSize() + iy; }
+
+    public double getExpectedSeats(int ix, int iy, int party) { return expectedSeats[point(ix, iy)][party]; }
+    public double getMajorityProbability(int ix, int iy, int party) { return majorityProbability[point(ix, iy)][party]; }
+    public double getGovernmentProbability(int ix, int iy, int party) { return governmentProbability[point(ix, iy)][party]; }
+
+    // 1政党分の期待議席の面 [x][y]
+    public double[][] getExpectedSeatsSurface(int party) {
+        return surface(expectedSeats, party);
+    }
+
+    // 1政党分の単独過半数確率の面 [x][y]
+    public double[][] getMajoritySurface(int party) {
+        return surface(majorityProbability, party);
+    }
+
+    private double[][] surface(double[][] values, int party) {
+        double[][] s = new double[getXSize()][getYSize()];
+        for (int ix = 0; ix < s.length; ix++) {
+            for (int iy = 0; iy < s[ix].length; iy++) s[ix][iy] = values[point(ix, iy)][party];
+        }
+        return s;
+    }
+}
@@ -0,0 +1,354 @@
+package jp.el;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// 試行結果の保存ファイルを読む (書き込みは TrialStoreWriter)
+// ファイル全体をメモリマップして列ごとに走査するので、何百万試行あってもヒープはほぼ増えない。
+//
+// 形式 (ビッグエンディアン、追記のみ):
+//   ヘッダ  : MAGIC, VERSION, 政党数, 選挙区数, 候補者配置のハッシュ (long),
+//             政党名 (short 長さ + UTF-8) x 政党数, 選挙区名 x 選挙区数
+//   ブロック: BLOCK_MAGIC, 試行数 n, 議席数の列 (short x n) x 政党数, 当選政党の列 (byte x n) x 選挙区数,
+//             選挙区ごと政党ごとの当選回数 (short x 政党数) x 選挙区数
+// ブロックは試行をまとめた列指向の塊で、問い合わせは必要な列だけを読む。
+// 当選回数の集計はブロックごとに書いておくので、選挙区の入れ替わりは当選政党の列を読まずに数えられる。
+// 書きかけで途切れた末尾のブロックは無視する (次に TrialStoreWriter が書くときに切り詰める)。
+// 候補者配置 (どの選挙区にどの党が立つか) はデータのシードで変わるので、ハッシュが同じファイルにだけ追記できる。
+// 別の選挙を混ぜると選挙区の入れ替わりが意味をなさなくなるため。
+public final class TrialStore implements Closeable {
+    static final int MAGIC = 0x454C5453;       // "ELTS"
+    static final int BLOCK_MAGIC = 0x424C4B31; // "BLK1"
+    static final int VERSION = 2;
+    static final int BLOCK_HEADER_BYTES = 8;
+    // 当選政党は byte で持つので政党数はこれまで
+    static final int MAX_PARTIES = Byte.MAX_VALUE;
+
+    // マップ1つの上限 (MappedByteBuffer は2GB未満なので、ブロック境界で分けてマップする)
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    private final Layout layout;
+    private final MappedByteBuffer[] segments;
+    private final int[] blockSegment; // [ブロック] -> segments の番号
+    private final int[] blockOffset;  // [ブロック] -> セグメント内の位置 (ブロックヘッダの後)
+
+    private TrialStore(Layout layout, MappedByteBuffer[] segments, int[] blockSegment, int[] blockOffset) {
+        this.layout = layout;
+        this.segments = segments;
+        this.blockSegment = blockSegment;
+        this.blockOffset = blockOffset;
+    }
+
+    // 画面の「一斉投票を実行」の結果を追記する先 (-Djp.el.trialStore=... で変更可能)
+    // 既定では候補者配置ごとに別のファイルにする (起動ごとにシードが変わっても追記を拒まれないように)
+    public static Path defaultPath(ElectionTable table) {
+        String file = System.getProperty("jp.el.trialStore");
+        if (file != null) return Paths.get(file);
+        return Paths.get(System.getProperty("user.home"), ".election-simulator",
+                "trials-" + Long.toHexString(lineupHash(table)) + ".bin");
+    }
+
+    // 候補者配置のハッシュ (選挙区ごとの候補者数と各候補者の政党)
+    public static long lineupHash(ElectionTable table) {
+        long h = table.getPartyCount();
+        for (int offset : table.getDistrictOffsets()) h = SimulationContext.mix64(h + offset);
+        for (int party : table.getCandidateParty()) h = SimulationContext.mix64(h + party);
+        return h;
+    }
+
+    // 開いた時点までに書き終わっているブロックだけを読む (後から追記された分は開き直すと見える)
+    public static TrialStore open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Layout layout = Layout.read(channel);
+            int blocks = layout.blockTrials.length;
+            List<MappedByteBuffer> segments = new ArrayList<>();
+            int[] blockSegment = new int[blocks];
+            int[] blockOffset = new int[blocks];
+            int b = 0;
+            while (b < blocks) {
+                long start = layout.blockPositions[b];
+                int first = b;
+                while (b < blocks && layout.blockEnd(b) - start <= MAX_SEGMENT_BYTES) {
+                    blockSegment[b] = segments.size();
+                    blockOffset[b] = (int) (layout.blockPositions[b] - start) + BLOCK_HEADER_BYTES;
+                    b++;
+                }
+                if (b == first) throw new IOException("block too large: " + b);
+                segments.add(channel.map(FileChannel.MapMode.READ_ONLY, start, layout.blockEnd(b - 1) - start));
+            }
+            return new TrialStore(layout, segments.toArray(new MappedByteBuffer[0]), blockSegment, blockOffset);
+        }
+    }
+
+    public int getPartyCount() { return layout.partyNames.length; }
+    public int getDistrictCount() { return layout.districtNames.length; }
+    public String getPartyName(int party) { return layout.partyNames[party]; }
+    public String getDistrictName(int district) { return layout.districtNames[district]; }
+    public long getTrialCount() { return layout.trialCount; }
+    public long getLineupHash() { return layout.lineup; }
+
+    public int indexOfParty(String name) {
+        for (int p = 0; p < layout.partyNames.length; p++) {
+            if (layout.partyNames[p].equals(name)) return p;
+        }
+        return -1;
+    }
+
+    // 政党 party の議席数が seats 以上だった試行の数
+    public long countAtLeast(int party, int seats) {
+        checkParty(party);
+        long count = 0;
+        for (int b = 0; b < blockTrials().length; b++) {
+            ByteBuffer buf = segments[blockSegment[b]];
+            int n = blockTrials()[b];
+            int base = blockOffset[b] + party * n * 2;
+            for (int i = 0; i < n; i++) {
+                if (buf.getShort(base + i * 2) >= seats) count++;
+            }
+        }
+        return count;
+    }
+
+    // P(議席数 >= seats)。試行がなければ 0
+    public double probabilityAtLeast(int party, int seats) {
+        return layout.trialCount == 0 ? 0.0 : (double) countAtLeast(party, seats) / layout.trialCount;
+    }
+
+    // [議席数] -> 回数 (長さは観測された最大議席数 + 1)
+    public long[] seatHistogram(int party) {
+        checkParty(party);
+        long[] counts = new long[64];
+        for (int b = 0; b < blockTrials().length; b++) {
+            ByteBuffer buf = segments[blockSegment[b]];
+            int n = blockTrials()[b];
+            int base = blockOffset[b] + party * n * 2;
+            for (int i = 0; i < n; i++) {
+                int s = buf.getShort(base + i * 2);
+                if (s >= counts.length) counts = Arrays.copyOf(counts, Math.max(s + 1, counts.length * 2));
+                counts[s]++;
+            }
+        }
+        int max = counts.length - 1;
+        while (max > 0 && counts[max] == 0) max--;
+        return Arrays.copyOf(counts, max + 1);
+    }
+
+    public double expectedSeats(int party) {
+        if (layout.trialCount == 0) return 0.0;
+        long[] histogram = seatHistogram(party);
+        long sum = 0;
+        for (int s = 0; s < histogram.length; s++) sum += s * histogram[s];
+        return (double) sum / layout.trialCount;
+    }
+
+    // [選挙区][政党] -> その政党が当選した試行の数 (ブロックごとの集計を足すだけ)
+    public long[][] winCounts() {
+        int partyCount = getPartyCount();
+        int districtCount = getDistrictCount();
+        long[][] counts = new long[districtCount][partyCount];
+        for (int b = 0; b < blockTrials().length; b++) {
+            ByteBuffer buf = segments[blockSegment[b]];
+            int n = blockTrials()[b];
+            int base = blockOffset[b] + n * (2 * partyCount + districtCount);
+            for (int d = 0; d < districtCount; d++) {
+                long[] dst = counts[d];
+                for (int p = 0; p < partyCount; p++) {
+                    dst[p] += buf.getShort(base + (d * partyCount + p) * 2);
+                }
+            }
+        }
+        return counts;
+    }
+
+    // 選挙区 district で政党 party が当選した試行の数 (当選政党の列を1本だけ読む)
+    public long countWins(int district, int party) {
+        checkParty(party);
+        int partyCount = getPartyCount();
+        long count = 0;
+        byte[] column = new byte[TrialStoreWriter.TRIALS_PER_BLOCK];
+        for (int b = 0; b < blockTrials().length; b++) {
+            ByteBuffer buf = segments[blockSegment[b]];
+            int n = blockTrials()[b];
+            if (column.length < n) column = new byte[n];
+            buf.get(blockOffset[b] + partyCount * n * 2 + district * n, column, 0, n);
+            for (int i = 0; i < n; i++) {
+                if (column[i] == party) count++;
+            }
+        }
+        return count;
+    }
+
+    // [選挙区] -> 「いつもの勝者」(最も多く当選した政党) 以外が当選した試行の数
+    public long[] flipCounts() {
+        long[][] wins = winCounts();
+        long[] flips = new long[wins.length];
+        for (int d = 0; d < wins.length; d++) {
+            long total = 0;
+            long max = 0;
+            for (long c : wins[d]) {
+                total += c;
+                max = Math.max(max, c);
+            }
+            flips[d] = total - max;
+        }
+        return flips;
+    }
+
+    // 入れ替わりの多い選挙区を多い順に最大 limit 件 (同数なら選挙区番号順)
+    public int[] mostFlippedDistricts(int limit) {
+        return mostFlippedDistricts(flipCounts(), limit);
+    }
+
+    // flipCounts() の結果を使い回す版
+    public static int[] mostFlippedDistricts(long[] flips, int limit) {
+        Integer[] order = new Integer[flips.length];
+        for (int d = 0; d < order.length; d++) order[d] = d;
+        Arrays.sort(order, (a, b) -> flips[a] != flips[b] ? Long.compare(flips[b], flips[a]) : Integer.compare(a, b));
+        int[] result = new int[Math.min(limit, order.length)];
+        for (int i = 0; i < result.length; i++) result[i] = order[i];
+        return result;
+    }
+
+    // マップはGCで解放されるので参照を切るだけ
+    @Override
+    public void close() {
+        Arrays.fill(segments, null);
+    }
+
+    private int[] blockTrials() { return layout.blockTrials; }
+
+    private void checkParty(int party) {
+        if (party < 0 || party >= getPartyCount()) throw new IllegalArgumentException("unknown party: " + party);
+    }
+
+    // ヘッダとブロックの位置 (TrialStoreWriter と共用)
+    static final class Layout {
+        final String[] partyNames;
+        final String[] districtNames;
+        final long lineup;
+        final long headerBytes;
+        final long[] blockPositions; // [ブロック] -> ファイル内の位置 (ブロックヘッダの先頭)
+        final int[] blockTrials;     // [ブロック] -> 試行数
+        final long trialCount;
+        final long validEnd;         // 書き終わっているブロックの末尾
+
+        private Layout(String[] partyNames, String[] districtNames, long lineup, long headerBytes,
+                       long[] blockPositions, int[] blockTrials, long trialCount, long validEnd) {
+            this.partyNames = partyNames;
+            this.districtNames = districtNames;
+            this.lineup = lineup;
+            this.headerBytes = headerBytes;
+            this.blockPositions = blockPositions;
+            this.blockTrials = blockTrials;
+            this.trialCount = trialCount;
+            this.validEnd = validEnd;
+        }
+
+        long blockBytes(int trials) {
+            return BLOCK_HEADER_BYTES + (long) trials * (2L * partyNames.length + districtNames.length)
+                    + 2L * partyNames.length * districtNames.length;
+        }
+
+        long blockEnd(int block) {
+            return blockPositions[block] + blockBytes(blockTrials[block]);
+        }
+
+        static Layout read(FileChannel channel) throws IOException {
+            long size = channel.size();
+            ByteBuffer fixed = readFully(channel, 0, 24);
+            if (fixed.getInt() != MAGIC) throw new IOException("not a trial store");
+            int version = fixed.getInt();
+            if (version != VERSION) throw new IOException("unsupported trial store version: " + version);
+            int partyCount = fixed.getInt();
+            int districtCount = fixed.getInt();
+            long lineup = fixed.getLong();
+            if (partyCount <= 0 || partyCount > MAX_PARTIES || districtCount < 0) {
+                throw new IOException("broken trial store header");
+            }
+
+            long position = 24;
+            String[] partyNames = new String[partyCount];
+            for (int p = 0; p < partyCount; p++) {
+                partyNames[p] = readName(channel, position);
+                position += 2 + partyNames[p].getBytes(StandardCharsets.UTF_8).length;
+            }
+            String[] districtNames = new String[districtCount];
+            for (int d = 0; d < districtCount; d++) {
+                districtNames[d] = readName(channel, position);
+                position += 2 + districtNames[d].getBytes(StandardCharsets.UTF_8).length;
+            }
+            long headerBytes = position;
+
+            // ブロックを先頭から辿る (途切れたブロックや壊れたブロックの手前で止める)
+            long perTrial = 2L * partyCount + districtCount;
+            long summaryBytes = 2L * partyCount * districtCount;
+            long[] positions = new long[16];
+            int[] trials = new int[16];
+            int blocks = 0;
+            long trialCount = 0;
+            ByteBuffer head = ByteBuffer.allocate(BLOCK_HEADER_BYTES);
+            while (position + BLOCK_HEADER_BYTES <= size) {
+                head.clear();
+                channel.read(head, position);
+                head.flip();
+                if (head.remaining() < BLOCK_HEADER_BYTES || head.getInt() != BLOCK_MAGIC) break;
+                int n = head.getInt();
+                long blockBytes = BLOCK_HEADER_BYTES + n * perTrial + summaryBytes;
+                if (n <= 0 || n > TrialStoreWriter.TRIALS_PER_BLOCK || position + blockBytes > size) break;
+                if (blocks == positions.length) {
+                    positions = Arrays.copyOf(positions, blocks * 2);
+                    trials = Arrays.copyOf(trials, blocks * 2);
+                }
+                positions[blocks] = position;
+                trials[blocks] = n;
+                blocks++;
+                trialCount += n;
+                position += blockBytes;
+            }
+            return new Layout(partyNames, districtNames, lineup, headerBytes, Arrays.copyOf(positions, blocks),
+                    Arrays.copyOf(trials, blocks), trialCount, position);
+        }
+
+        static ByteBuffer header(List<String> partyNames, List<String> districtNames, long lineup) {
+            List<byte[]> names = new ArrayList<>();
+            int bytes = 24;
+            for (String name : partyNames) bytes += 2 + add(names, name);
+            for (String name : districtNames) bytes += 2 + add(names, name);
+            ByteBuffer buf = ByteBuffer.allocate(bytes);
+            buf.putInt(MAGIC).putInt(VERSION).putInt(partyNames.size()).putInt(districtNames.size()).putLong(lineup);
+            for (byte[] name : names) buf.putShort((short) name.length).put(name);
+            return buf.flip();
+        }
+
+        private static int add(List<byte[]> names, String name) {
+            byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+            if (utf8.length > Short.MAX_VALUE) throw new IllegalArgumentException("name too long: " + name);
+            names.add(utf8);
+            return utf8.length;
+        }
+
+        private static String readName(FileChannel channel, long position) throws IOException {
+            int length = readFully(channel, position, 2).getShort();
+            return StandardCharsets.UTF_8.decode(readFully(channel, position + 2, length)).toString();
+        }
+
+        private static ByteBuffer readFully(FileChannel channel, long position, int bytes) throws IOException {
+            ByteBuffer buf = ByteBuffer.allocate(bytes);
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, position + buf.position()) < 0) throw new EOFException("truncated trial store header");
+            }
+            return buf.flip();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package jp.el;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// 試行結果を保存ファイルに追記する (形式は TrialStore を参照)
+// 試行は列ごとのバッファに溜め、TRIALS_PER_BLOCK 件たまるか flush/close でブロック1つとして書き出す。
+// 既存のファイルは政党・選挙区・候補者配置が同じ場合だけ追記できる。
+// 書き出しのたびにファイル全体の排他ロックを取り、末尾を読み直してから書くので、
+// 画面と Batch --store など複数のプロセスが同じファイルに追記しても互いのブロックを上書きしない。
+// インスタンスはスレッドセーフではない。
+public final class TrialStoreWriter implements Closeable {
+    public static final int TRIALS_PER_BLOCK = 4096;
+
+    private final FileChannel channel;
+    private final Path path;
+    private final long lineup;
+    private final int partyCount;
+    private final int districtCount;
+    private final short[] seats;   // [政党 * TRIALS_PER_BLOCK + i]
+    private final byte[] winners;  // [選挙区 * TRIALS_PER_BLOCK + i]
+    private int buffered;
+    private long written;          // 最後に確認したときのファイル内の試行数 (他の書き手の分も含む)
+
+    private TrialStoreWriter(FileChannel channel, Path path, long lineup, int partyCount, int districtCount, long written) {
+        this.channel = channel;
+        this.path = path;
+        this.lineup = lineup;
+        this.partyCount = partyCount;
+        this.districtCount = districtCount;
+        this.seats = new short[partyCount * TRIALS_PER_BLOCK];
+        this.winners = new byte[districtCount * TRIALS_PER_BLOCK];
+        this.written = written;
+    }
+
+    // ファイルがなければ作り、あれば政党・選挙区・候補者配置が同じか確かめて末尾に追記する
+    public static TrialStoreWriter open(Path path, ElectionTable table) throws IOException {
+        if (table.getPartyCount() > TrialStore.MAX_PARTIES) {
+            throw new IllegalArgumentException("too many parties for a trial store: " + table.getPartyCount());
+        }
+        List<String> partyNames = new ArrayList<>();
+        for (Party p : table.getPartyList()) partyNames.add(p.getName());
+        List<String> districtNames = new ArrayList<>();
+        for (int d = 0; d < table.getDistrictCount(); d++) districtNames.add(table.getDistrictName(d));
+        long lineup = TrialStore.lineupHash(table);
+
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileLock lock = null;
+        try {
+            lock = channel.lock();
+            if (channel.size() == 0) {
+                writeFully(channel, TrialStore.Layout.header(partyNames, districtNames, lineup), 0);
+                return new TrialStoreWriter(channel, path, lineup, partyNames.size(), districtNames.size(), 0);
+            }
+            TrialStore.Layout layout = TrialStore.Layout.read(channel);
+            if (!List.of(layout.partyNames).equals(partyNames) || !List.of(layout.districtNames).equals(districtNames)) {
+                throw new IOException("trial store has different parties or districts: " + path);
+            }
+            if (layout.lineup != lineup) {
+                throw new IOException("trial store was written with a different candidate lineup (data seed): " + path);
+            }
+            return new TrialStoreWriter(channel, path, lineup, partyNames.size(), districtNames.size(), layout.trialCount);
+        } catch (IOException | RuntimeException e) {
+            channel.close(); // ロックも外れる
+            throw e;
+        } finally {
+            if (lock != null && lock.isValid()) lock.release();
+        }
+    }
+
+    public Path getPath() { return path; }
+
+    // ファイル内の試行数 (最後に書き出した時点。他の書き手の分も含む) + バッファ中の試行数
+    public long getTrialCount() { return written + buffered; }
+
+    // seats[seatsOffset ..] に政党番号順の議席数、winners[winnersOffset ..] に選挙区番号順の当選政党 (-1 は当選者なし)
+    public void append(int[] seats, int seatsOffset, byte[] winners, int winnersOffset) throws IOException {
+        for (int p = 0; p < partyCount; p++) {
+            this.seats[p * TRIALS_PER_BLOCK + buffered] = (short) seats[seatsOffset + p];
+        }
+        for (int d = 0; d < districtCount; d++) {
+            this.winners[d * TRIALS_PER_BLOCK + buffered] = winners[winnersOffset + d];
+        }
+        buffered++;
+        if (buffered == TRIALS_PER_BLOCK) flush();
+    }
+
+    // 画面の1回分の結果を追記する (当選者は票数から求める)
+    public void append(ElectionSnapshot snapshot, ElectionTable table) throws IOException {
+        if (TrialStore.lineupHash(table) != lineup) {
+            throw new IllegalArgumentException("table has a different candidate lineup from " + path);
+        }
+        int[] votes = snapshot.getVotes();
+        int[] candidateParty = table.getCandidateParty();
+        byte[] districtWinners = new byte[districtCount];
+        for (int d = 0; d < districtCount; d++) {
+            int winner = table.getWinner(d, votes);
+            districtWinners[d] = winner < 0 ? -1 : (byte) candidateParty[winner];
+        }
+        append(snapshot.getSeats(), 0, districtWinners, 0);
+    }
+
+    public boolean hasBuffered() { return buffered > 0; }
+
+    // バッファ中の試行をブロックとして書き出す
+    public void flush() throws IOException {
+        if (buffered == 0) return;
+        int n = buffered;
+        ByteBuffer block = ByteBuffer.allocate(TrialStore.BLOCK_HEADER_BYTES + n * (2 * partyCount + districtCount)
+                + 2 * partyCount * districtCount);
+        block.putInt(TrialStore.BLOCK_MAGIC).putInt(n);
+        for (int p = 0; p < partyCount; p++) {
+            block.asShortBuffer().put(seats, p * TRIALS_PER_BLOCK, n);
+            block.position(block.position() + n * 2);
+        }
+        for (int d = 0; d < districtCount; d++) {
+            block.put(winners, d * TRIALS_PER_BLOCK, n);
+        }
+        // ブロック内の当選回数 (n <= TRIALS_PER_BLOCK なので short に収まる)
+        short[] wins = new short[partyCount];
+        for (int d = 0; d < districtCount; d++) {
+            Arrays.fill(wins, (short) 0);
+            for (int i = 0; i < n; i++) {
+                int p = winners[d * TRIALS_PER_BLOCK + i];
+                if (p >= 0) wins[p]++;
+            }
+            for (short w : wins) block.putShort(w);
+        }
+        block.flip();
+
+        // ロック中は他の書き手が書いていないので、途切れた末尾は落ちたプロセスの書きかけ。切り詰めてから書く
+        FileLock lock = channel.lock();
+        try {
+            TrialStore.Layout layout = TrialStore.Layout.read(channel);
+            if (channel.size() > layout.validEnd) channel.truncate(layout.validEnd);
+            writeFully(channel, block, layout.validEnd);
+            written = layout.trialCount + n;
+        } finally {
+            lock.release();
+        }
+        buffered = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            channel.write(buf, position + buf.position());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package jp.el;
+
+import java.util.random.RandomGenerator;
+
+// 加重抽選の票数をまとめてサンプリングする
+// 有権者1人ずつ抽選する代わりに、条件付き二項分布の連鎖で多項分布 Multinomial(n, w/Σw) を引く。
+// 計算量は候補者数にのみ比例し、有権者数 n には依存しない。
+public class VoteSampler {
+    // これ未満の試行回数なら1回ずつベルヌーイ試行しても十分速い
+    private static final int SMALL_N = 16;
+    // 平均がこれ未満なら逆関数法 (幾何分布の待ち時間) で厳密に引く
+    private static final double SMALL_MEAN = 10.0;
+
+    private VoteSampler() {}
+
+    // totalVoters 票を weights の比率で配分し、結果を votes[0..count) に書き込む
+    public static void sample(RandomGenerator rand, int totalVoters, int[] weights, int count, int[] votes) {
+        sample(rand, totalVoters, weights, count, votes, 0);
+    }
+
+    // 結果を votes[offset..offset+count) に書き込む (ElectionTable の票数配列に直接書く用)
+    public static void sample(RandomGenerator rand, int totalVoters, int[] weights, int count, int[] votes, int offset) {
+        long remainingWeight = 0;
+        for (int k = 0; k < count; k++) remainingWeight += weights[k];
+
+        int remaining = totalVoters;
+        for (int k = 0; k < count - 1; k++) {
+            int x = 0;
+            if (remaining > 0 && remainingWeight > 0) {
+                x = binomial(rand, remaining, (double) weights[k] / remainingWeight);
+            }
+            votes[offset + k] = x;
+            remaining -= x;
+            remainingWeight -= weights[k];
+        }
+        if (count > 0) votes[offset + count - 1] = remaining;
+    }
+
+    // 二項分布 B(n, p) に従う乱数
+    static int binomial(RandomGenerator rand, int n, double p) {
+        if (n <= 0 || p <= 0.0) return 0;
+        if (p >= 1.0) return n;
+        if (p > 0.5) return n - binomial(rand, n, 1.0 - p);
+
+        if (n < SMALL_N) {
+            int x = 0;
+            for (int i = 0; i < n; i++) {
+                if (rand.nextDouble() < p) x++;
+            }
+            return x;
+        }
+
+        double mean = n * p;
+        if (mean < SMALL_MEAN) {
+            // 成功と成功の間隔は幾何分布なので、間隔を足していって n を超えるまで数える
+            double logQ = Math.log1p(-p);
+            int x = 0;
+            long sum = 0;
+            while (true) {
+                sum += (long) (Math.log(1.0 - rand.nextDouble()) / logQ) + 1;
+                if (sum > n) return x;
+                x++;
+            }
+        }
+
+        // 大きい n は正規近似 (連続補正つき)
+        double sd = Math.sqrt(mean * (1.0 - p));
+        long x = (long) Math.floor(mean + sd * rand.nextGaussian() + 0.5);
+        if (x < 0) return 0;
+        if (x > n) return n;
+        return (int) x;
+    }
+}
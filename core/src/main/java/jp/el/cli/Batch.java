@@ -0,0 +1,216 @@
+package jp.el.cli;
+
+import jp.el.ElectionData;
+import jp.el.Party;
+import jp.el.SimulationContext;
+import jp.el.SimulationEngine;
+import jp.el.SimulationResult;
+import jp.el.TrialStoreWriter;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// コマンドラインのバッチ実行 (JavaFX を一切使わない)
+//   java -cp election-all.jar jp.el.cli.Batch --trials 100000 --seed 1 --format jsonl -o result.jsonl
+// 試行はチャンク単位で全コアに分けて実行し、終わったチャンクから試行番号順に書き出す。
+// メモリはチャンク1つ分しか使わないので、何時間かかる試行数でもそのまま流せる。
+// 標準出力はデータ専用 (読み込み時のメッセージなどは標準エラーに回す)。
+// --store を付けると試行ごとの議席数と選挙区の当選政党を保存ファイルに追記する (問い合わせは jp.el.cli.Query)。
+public final class Batch {
+    private static final int TRIALS_PER_CHUNK = 4096;
+
+    private static final String USAGE = String.join("\n",
+            "使い方: jp.el.cli.Batch [オプション]",
+            "  -n, --trials N      試行回数 (既定 10000)",
+            "  -s, --seed N        乱数のシード (既定 ランダム)",
+            "      --data-seed N   候補者配置のシード (既定 --seed と同じ)",
+            "  -t, --threads N     並列数 (既定 CPUコア数)",
+            "  -f, --format F      csv, jsonl, none (既定 csv。none は --store だけに書く)",
+            "  -o, --output FILE   出力先 (既定 標準出力)",
+            "      --summary       試行ごとではなく政党ごとの集計を出力する",
+            "      --store FILE    試行結果を保存ファイルに追記する (--summary とは併用不可)",
+            "  -q, --quiet         進捗を表示しない",
+            "  -h, --help          この説明を表示する");
+
+    private int trials = 10_000;
+    private Long seed;
+    private Long dataSeed;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String format = "csv";
+    private String output;
+    private boolean summary;
+    private String store;
+    private boolean quiet;
+
+    private Batch() {}
+
+    public static void main(String[] args) {
+        // 標準出力はデータ用に取っておき、それ以外の出力は標準エラーへ
+        PrintStream stdout = System.out;
+        System.setOut(System.err);
+
+        Batch batch = new Batch();
+        try {
+            batch.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        try {
+            batch.run(stdout);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("出力に失敗しました: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-n": case "--trials": trials = parseInt(arg, value(args, ++i, arg)); break;
+                case "-s": case "--seed": seed = parseLong(arg, value(args, ++i, arg)); break;
+                case "--data-seed": dataSeed = parseLong(arg, value(args, ++i, arg)); break;
+                case "-t": case "--threads": threads = parseInt(arg, value(args, ++i, arg)); break;
+                case "-f": case "--format": format = value(args, ++i, arg); break;
+                case "-o": case "--output": output = value(args, ++i, arg); break;
+                case "--summary": summary = true; break;
+                case "--store": store = value(args, ++i, arg); break;
+                case "-q": case "--quiet": quiet = true; break;
+                case "-h": case "--help":
+                    System.err.println(USAGE);
+                    System.exit(0);
+                    return;
+                default: throw new IllegalArgumentException("不明なオプション: " + arg);
+            }
+        }
+        if (trials <= 0) throw new IllegalArgumentException("--trials は1以上: " + trials);
+        if (threads <= 0) throw new IllegalArgumentException("--threads は1以上: " + threads);
+        if (!format.equals("csv") && !format.equals("jsonl") && !format.equals("none")) {
+            throw new IllegalArgumentException("--format は csv, jsonl, none のいずれか: " + format);
+        }
+        if (store != null && summary) throw new IllegalArgumentException("--store と --summary は併用できません");
+        if (format.equals("none") && (store == null || summary)) {
+            throw new IllegalArgumentException("--format none は --store と一緒に使います");
+        }
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) throw new IllegalArgumentException(option + " の値がありません");
+        return args[i];
+    }
+
+    private static int parseInt(String option, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " の値が数値ではありません: " + value);
+        }
+    }
+
+    private static long parseLong(String option, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " の値が数値ではありません: " + value);
+        }
+    }
+
+    private void run(PrintStream stdout) throws IOException {
+        long start = System.nanoTime();
+        SimulationContext context = seed != null ? new SimulationContext(seed) : SimulationContext.random();
+        ElectionData data = new ElectionData(dataSeed != null ? dataSeed : context.getSeed());
+        List<String> names = new ArrayList<>();
+        for (Party p : data.getTable().getPartyList()) names.add(p.getName());
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        SimulationEngine engine = new SimulationEngine(data, pool);
+        System.err.printf("試行 %,d回 / シード %d / %dスレッド%n", trials, context.getSeed(), threads);
+
+        OutputStream stream = output != null ? new FileOutputStream(output) : stdout;
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 1 << 16)) {
+            ResultWriter writer = ResultWriter.create(format, out, names);
+            if (summary) {
+                writeSummary(engine, context, writer);
+            } else if (store != null) {
+                try (TrialStoreWriter storeWriter = TrialStoreWriter.open(Path.of(store), data.getTable())) {
+                    writeTrials(engine, context, writer, names.size(), data.getTable().getDistrictCount(), storeWriter);
+                    System.err.printf("%s に追記しました (計 %,d試行)%n", store, storeWriter.getTrialCount());
+                }
+            } else {
+                writeTrials(engine, context, writer, names.size(), 0, null);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        System.err.printf("完了 (%.1f秒)%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    // storeWriter が null でなければ選挙区の当選政党も求めて保存ファイルに追記する
+    private void writeTrials(SimulationEngine engine, SimulationContext context, ResultWriter writer,
+                             int partyCount, int districtCount, TrialStoreWriter storeWriter) throws IOException {
+        int chunk = Math.min(trials, TRIALS_PER_CHUNK);
+        int[] seats = new int[chunk * partyCount];
+        long[] governments = new long[chunk];
+        byte[] winners = storeWriter != null ? new byte[chunk * districtCount] : null;
+        writer.trialHeader();
+        for (int from = 0; from < trials; from += chunk) {
+            int to = (int) Math.min((long) from + chunk, trials);
+            engine.runTrials(from, to, context, seats, governments, winners);
+            for (int t = from; t < to; t++) {
+                writer.trial(t, seats, (t - from) * partyCount, governments[t - from]);
+                if (storeWriter != null) {
+                    storeWriter.append(seats, (t - from) * partyCount, winners, (t - from) * districtCount);
+                }
+            }
+            progress(to);
+        }
+    }
+
+    private void writeSummary(SimulationEngine engine, SimulationContext context, ResultWriter writer)
+            throws IOException {
+        SimulationResult result = engine.run(trials, context, new SimulationEngine.Monitor() {
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+
+            @Override
+            public void progress(long done, long total) {
+                Batch.this.progress(done);
+            }
+        });
+        writer.summaryHeader();
+        for (int p = 0; p < result.getParties().size(); p++) {
+            writer.summary(p, result.getExpectedSeats(p), result.getExpectedProportionalSeats(p),
+                    result.getMajorityProbability(p), result.getGovernmentProbability(p));
+        }
+    }
+
+    private long lastReport;
+
+    // 1秒に1回まで
+    private synchronized void progress(long done) {
+        if (quiet) return;
+        long now = System.nanoTime();
+        if (done < trials && now - lastReport < 1_000_000_000L) return;
+        lastReport = now;
+        System.err.printf("\r%,d / %,d", done, trials);
+        if (done >= trials) System.err.println();
+    }
+}
@@ -0,0 +1,122 @@
+package jp.el.cli;
+
+import jp.el.ProportionalBlocks;
+import jp.el.TrialStore;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// 試行結果の保存ファイル (Batch --store や画面の「一斉投票を実行」が追記したもの) への問い合わせ
+//   java -cp election-all.jar jp.el.cli.Query trials.bin --at-least 自由党 233 --flips 20
+// 何も指定しなければ政党ごとの期待議席数・過半数の確率と、入れ替わりの多い選挙区10件を表示する。
+public final class Query {
+    private static final String USAGE = String.join("\n",
+            "使い方: jp.el.cli.Query FILE [オプション]",
+            "      --at-least 政党 N  その政党が N 議席以上の確率 (複数指定可)",
+            "      --flips K          入れ替わりの多い選挙区を K 件 (既定 10)",
+            "  -h, --help             この説明を表示する");
+
+    private String file;
+    private final List<String> atLeastParties = new ArrayList<>();
+    private final List<Integer> atLeastSeats = new ArrayList<>();
+    private int flips = 10;
+    private boolean summary = true;
+
+    private Query() {}
+
+    public static void main(String[] args) {
+        PrintStream stdout = System.out;
+        System.setOut(System.err);
+
+        Query query = new Query();
+        try {
+            query.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        try (TrialStore store = TrialStore.open(Path.of(query.file))) {
+            query.run(store, stdout);
+        } catch (IOException e) {
+            System.err.println("読み込みに失敗しました: " + e.getMessage());
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--at-least":
+                    atLeastParties.add(value(args, ++i, arg));
+                    atLeastSeats.add(parseInt(arg, value(args, ++i, arg)));
+                    summary = false;
+                    break;
+                case "--flips":
+                    flips = parseInt(arg, value(args, ++i, arg));
+                    summary = false;
+                    break;
+                case "-h": case "--help":
+                    System.err.println(USAGE);
+                    System.exit(0);
+                    return;
+                default:
+                    if (arg.startsWith("-")) throw new IllegalArgumentException("不明なオプション: " + arg);
+                    if (file != null) throw new IllegalArgumentException("ファイルは1つだけ指定します: " + arg);
+                    file = arg;
+            }
+        }
+        if (file == null) throw new IllegalArgumentException("ファイルを指定してください");
+        if (flips < 0) throw new IllegalArgumentException("--flips は0以上: " + flips);
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) throw new IllegalArgumentException(option + " の値がありません");
+        return args[i];
+    }
+
+    private static int parseInt(String option, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " の値が数値ではありません: " + value);
+        }
+    }
+
+    private void run(TrialStore store, PrintStream out) {
+        long start = System.nanoTime();
+        out.printf("試行 %,d回%n", store.getTrialCount());
+        if (summary) {
+            int majority = (store.getDistrictCount() + ProportionalBlocks.TOTAL_SEATS) / 2 + 1;
+            for (int p = 0; p < store.getPartyCount(); p++) {
+                out.printf("%s: 期待議席 %.1f / 過半数(%d) %.2f%%%n", store.getPartyName(p),
+                        store.expectedSeats(p), majority, store.probabilityAtLeast(p, majority) * 100);
+            }
+        }
+        for (int i = 0; i < atLeastParties.size(); i++) {
+            String name = atLeastParties.get(i);
+            int party = store.indexOfParty(name);
+            if (party < 0) throw new IllegalArgumentException("不明な政党: " + name);
+            int seats = atLeastSeats.get(i);
+            out.printf("P(%s >= %d) = %.4f (%,d回)%n", name, seats,
+                    store.probabilityAtLeast(party, seats), store.countAtLeast(party, seats));
+        }
+        if (flips > 0) {
+            long[] counts = store.flipCounts();
+            out.println("入れ替わりの多い選挙区:");
+            for (int d : TrialStore.mostFlippedDistricts(counts, flips)) {
+                out.printf("  %s: %,d回 (%.1f%%)%n", store.getDistrictName(d), counts[d],
+                        store.getTrialCount() == 0 ? 0.0 : counts[d] * 100.0 / store.getTrialCount());
+            }
+        }
+        System.err.printf("(%.1fミリ秒)%n", (System.nanoTime() - start) / 1e6);
+    }
+}
@@ -0,0 +1,177 @@
+package jp.el.cli;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+// バッチ出力の書式 (CSV / JSONL / 出力なし)
+// 政党名のエスケープは最初に1回だけ行い、行ごとには数値を書き足すだけにする
+abstract class ResultWriter {
+    protected final Writer out;
+    protected final int partyCount;
+
+    ResultWriter(Writer out, int partyCount) {
+        this.out = out;
+        this.partyCount = partyCount;
+    }
+
+    static ResultWriter create(String format, Writer out, List<String> partyNames) {
+        switch (format) {
+            case "csv": return new Csv(out, partyNames);
+            case "jsonl": return new Jsonl(out, partyNames);
+            case "none": return new None(out, partyNames.size());
+            default: throw new IllegalArgumentException("unknown format: " + format);
+        }
+    }
+
+    // 試行ごとの行の前に1回だけ呼ぶ
+    abstract void trialHeader() throws IOException;
+
+    // seats は [offset .. offset + 政党数) が政党番号順の議席数、government は政権の政党マスク
+    abstract void trial(int trial, int[] seats, int offset, long government) throws IOException;
+
+    // 集計の行の前に1回だけ呼ぶ
+    abstract void summaryHeader() throws IOException;
+
+    abstract void summary(int party, double expectedSeats, double expectedProportional,
+                          double majorityProbability, double governmentProbability) throws IOException;
+
+    // CSV の値 (必要なときだけ引用符で囲む)。Sweep と共用
+    static String quote(String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) return s;
+        return "\"" + s.replace("\"", "\"\"") + "\"";
+    }
+
+    // JSON の文字列リテラル。Sweep と共用
+    static String string(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+
+    // 政権の政党名を「・」でつなぐ (党番号順)
+    protected static String governmentName(long mask, List<String> names) {
+        StringBuilder sb = new StringBuilder();
+        for (long m = mask; m != 0; m &= m - 1) {
+            if (sb.length() > 0) sb.append('・');
+            sb.append(names.get(Long.numberOfTrailingZeros(m)));
+        }
+        return sb.toString();
+    }
+
+    // --store だけに書く場合 (何も出力しない)
+    private static final class None extends ResultWriter {
+        None(Writer out, int partyCount) {
+            super(out, partyCount);
+        }
+
+        @Override
+        void trialHeader() { }
+
+        @Override
+        void trial(int trial, int[] seats, int offset, long government) { }
+
+        @Override
+        void summaryHeader() { }
+
+        @Override
+        void summary(int party, double expectedSeats, double expectedProportional,
+                     double majorityProbability, double governmentProbability) { }
+    }
+
+    private static final class Csv extends ResultWriter {
+        private final List<String> names;
+        private final String[] quoted;
+
+        Csv(Writer out, List<String> names) {
+            super(out, names.size());
+            this.names = names;
+            this.quoted = new String[names.size()];
+            for (int p = 0; p < quoted.length; p++) quoted[p] = quote(names.get(p));
+        }
+
+        @Override
+        void trialHeader() throws IOException {
+            out.write("trial");
+            for (String name : quoted) out.write("," + name);
+            out.write(",government\n");
+        }
+
+        @Override
+        void trial(int trial, int[] seats, int offset, long government) throws IOException {
+            out.write(Integer.toString(trial));
+            for (int p = 0; p < partyCount; p++) {
+                out.write(',');
+                out.write(Integer.toString(seats[offset + p]));
+            }
+            out.write(',');
+            out.write(quote(governmentName(government, names)));
+            out.write('\n');
+        }
+
+        @Override
+        void summaryHeader() throws IOException {
+            out.write("party,expected_seats,expected_proportional_seats,majority_probability,government_probability\n");
+        }
+
+        @Override
+        void summary(int party, double expectedSeats, double expectedProportional,
+                     double majorityProbability, double governmentProbability) throws IOException {
+            out.write(quoted[party] + "," + expectedSeats + "," + expectedProportional + ","
+                    + majorityProbability + "," + governmentProbability + "\n");
+        }
+    }
+
+    private static final class Jsonl extends ResultWriter {
+        private final List<String> names;
+        private final String[] keys; // "\"政党名\":"
+
+        Jsonl(Writer out, List<String> names) {
+            super(out, names.size());
+            this.names = names;
+            this.keys = new String[names.size()];
+            for (int p = 0; p < keys.length; p++) keys[p] = string(names.get(p)) + ":";
+        }
+
+        @Override
+        void trialHeader() { }
+
+        @Override
+        void trial(int trial, int[] seats, int offset, long government) throws IOException {
+            out.write("{\"trial\":");
+            out.write(Integer.toString(trial));
+            out.write(",\"seats\":{");
+            for (int p = 0; p < partyCount; p++) {
+                if (p > 0) out.write(',');
+                out.write(keys[p]);
+                out.write(Integer.toString(seats[offset + p]));
+            }
+            out.write("},\"government\":[");
+            boolean first = true;
+            for (long m = government; m != 0; m &= m - 1) {
+                if (!first) out.write(',');
+                out.write(string(names.get(Long.numberOfTrailingZeros(m))));
+                first = false;
+            }
+            out.write("]}\n");
+        }
+
+        @Override
+        void summaryHeader() { }
+
+        @Override
+        void summary(int party, double expectedSeats, double expectedProportional,
+                     double majorityProbability, double governmentProbability) throws IOException {
+            out.write("{\"party\":" + string(names.get(party))
+                    + ",\"expectedSeats\":" + expectedSeats
+                    + ",\"expectedProportionalSeats\":" + expectedProportional
+                    + ",\"majorityProbability\":" + majorityProbability
+                    + ",\"governmentProbability\":" + governmentProbability + "}\n");
+        }
+    }
+}
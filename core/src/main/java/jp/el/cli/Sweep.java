@@ -0,0 +1,211 @@
+package jp.el.cli;
+
+import jp.el.ElectionData;
+import jp.el.ParameterSweep;
+import jp.el.Party;
+import jp.el.SimulationContext;
+import jp.el.SimulationEngine;
+import jp.el.SweepResult;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// パラメータスイープのコマンドライン (ParameterSweep の格子点ごとの期待議席・過半数確率・与党入り確率を出力する)
+//   java -cp election-all.jar jp.el.cli.Sweep -x popularity:自由党:20:60:5 -y coef:YOUNG_LIBERAL:0:10:6 -n 2000 -s 1
+// 軸は popularity:政党名:開始:終了:点数 または coef:scoring.json の項のキー:開始:終了:点数。
+// 出力は格子点 x 政党 ごとに1行。標準出力はデータ専用 (Batch と同じ)。
+public final class Sweep {
+    private static final String USAGE = String.join("\n",
+            "使い方: jp.el.cli.Sweep -x 軸 [-y 軸] [オプション]",
+            "  -x, --x AXIS        1本目の軸 (popularity:政党名:開始:終了:点数 または coef:キー:開始:終了:点数)",
+            "  -y, --y AXIS        2本目の軸 (省略すると1次元)",
+            "  -n, --trials N      格子点ごとの試行回数 (既定 1000)",
+            "  -s, --seed N        乱数のシード (既定 ランダム。全格子点で共通)",
+            "      --data-seed N   候補者配置のシード (既定 --seed と同じ)",
+            "  -t, --threads N     並列数 (既定 CPUコア数)",
+            "  -f, --format F      csv または jsonl (既定 csv)",
+            "  -o, --output FILE   出力先 (既定 標準出力)",
+            "  -q, --quiet         進捗を表示しない",
+            "  -h, --help          この説明を表示する");
+
+    private String xSpec;
+    private String ySpec;
+    private int trials = 1000;
+    private Long seed;
+    private Long dataSeed;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String format = "csv";
+    private String output;
+    private boolean quiet;
+
+    private Sweep() {}
+
+    public static void main(String[] args) {
+        // 標準出力はデータ用に取っておき、それ以外の出力は標準エラーへ
+        PrintStream stdout = System.out;
+        System.setOut(System.err);
+
+        Sweep sweep = new Sweep();
+        try {
+            sweep.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        try {
+            sweep.run(stdout);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("出力に失敗しました: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "-x": case "--x": xSpec = value(args, ++i, arg); break;
+                case "-y": case "--y": ySpec = value(args, ++i, arg); break;
+                case "-n": case "--trials": trials = parseInt(arg, value(args, ++i, arg)); break;
+                case "-s": case "--seed": seed = parseLong(arg, value(args, ++i, arg)); break;
+                case "--data-seed": dataSeed = parseLong(arg, value(args, ++i, arg)); break;
+                case "-t": case "--threads": threads = parseInt(arg, value(args, ++i, arg)); break;
+                case "-f": case "--format": format = value(args, ++i, arg); break;
+                case "-o": case "--output": output = value(args, ++i, arg); break;
+                case "-q": case "--quiet": quiet = true; break;
+                case "-h": case "--help":
+                    System.err.println(USAGE);
+                    System.exit(0);
+                    return;
+                default: throw new IllegalArgumentException("不明なオプション: " + arg);
+            }
+        }
+        if (xSpec == null) throw new IllegalArgumentException("-x を指定してください");
+        if (trials <= 0) throw new IllegalArgumentException("--trials は1以上: " + trials);
+        if (threads <= 0) throw new IllegalArgumentException("--threads は1以上: " + threads);
+        if (!format.equals("csv") && !format.equals("jsonl")) {
+            throw new IllegalArgumentException("--format は csv か jsonl: " + format);
+        }
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) throw new IllegalArgumentException(option + " の値がありません");
+        return args[i];
+    }
+
+    private static int parseInt(String option, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " の値が数値ではありません: " + value);
+        }
+    }
+
+    private static long parseLong(String option, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(option + " の値が数値ではありません: " + value);
+        }
+    }
+
+    // popularity:政党名:開始:終了:点数 / coef:キー:開始:終了:点数
+    private static ParameterSweep.Axis parseAxis(ElectionData data, String spec) {
+        String[] parts = spec.split(":");
+        if (parts.length != 5) throw new IllegalArgumentException("軸の形式が違います: " + spec);
+        double[] values;
+        try {
+            values = ParameterSweep.Axis.range(Double.parseDouble(parts[2]), Double.parseDouble(parts[3]),
+                    Integer.parseInt(parts[4]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("軸の値が数値ではありません: " + spec);
+        }
+        switch (parts[0]) {
+            case "popularity": return ParameterSweep.Axis.popularity(data, parts[1], values);
+            case "coef": return ParameterSweep.Axis.coefficient(data, parts[1], values);
+            default: throw new IllegalArgumentException("軸の種類は popularity か coef: " + parts[0]);
+        }
+    }
+
+    private void run(PrintStream stdout) throws IOException {
+        long start = System.nanoTime();
+        SimulationContext context = seed != null ? new SimulationContext(seed) : SimulationContext.random();
+        ElectionData data = new ElectionData(dataSeed != null ? dataSeed : context.getSeed());
+        ParameterSweep.Axis x = parseAxis(data, xSpec);
+        ParameterSweep.Axis y = ySpec != null ? parseAxis(data, ySpec) : null;
+        int points = x.size() * (y == null ? 1 : y.size());
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        SweepResult result;
+        try {
+            System.err.printf("格子点 %d x 試行 %,d回 / シード %d / %dスレッド%n", points, trials, context.getSeed(), threads);
+            result = new ParameterSweep(data, pool).run(x, y, trials, context.getSeed(), new SimulationEngine.Monitor() {
+                @Override
+                public boolean isCancelled() {
+                    return false;
+                }
+
+                @Override
+                public void progress(long done, long total) {
+                    if (!quiet) System.err.printf("\r%d / %d", done, total);
+                    if (!quiet && done >= total) System.err.println();
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+
+        OutputStream stream = output != null ? new FileOutputStream(output) : stdout;
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 1 << 16)) {
+            write(result, out);
+        }
+        System.err.printf("完了 (%.1f秒)%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    private void write(SweepResult result, Writer out) throws IOException {
+        ParameterSweep.Axis x = result.getX();
+        ParameterSweep.Axis y = result.getY();
+        List<Party> parties = result.getParties();
+        boolean csv = format.equals("csv");
+        if (csv) {
+            out.write(ResultWriter.quote(x.getLabel()));
+            if (y != null) out.write("," + ResultWriter.quote(y.getLabel()));
+            out.write(",party,expected_seats,majority_probability,government_probability\n");
+        }
+        for (int ix = 0; ix < result.getXSize(); ix++) {
+            for (int iy = 0; iy < result.getYSize(); iy++) {
+                for (int p = 0; p < parties.size(); p++) {
+                    String name = parties.get(p).getName();
+                    double expected = result.getExpectedSeats(ix, iy, p);
+                    double majority = result.getMajorityProbability(ix, iy, p);
+                    double government = result.getGovernmentProbability(ix, iy, p);
+                    if (csv) {
+                        out.write(Double.toString(x.getValue(ix)));
+                        if (y != null) out.write("," + y.getValue(iy));
+                        out.write("," + ResultWriter.quote(name) + "," + expected + "," + majority + "," + government + "\n");
+                    } else {
+                        out.write("{\"x\":" + x.getValue(ix));
+                        if (y != null) out.write(",\"y\":" + y.getValue(iy));
+                        out.write(",\"party\":" + ResultWriter.string(name)
+                                + ",\"expectedSeats\":" + expected
+                                + ",\"majorityProbability\":" + majority
+                                + ",\"governmentProbability\":" + government + "}\n");
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,9 +1,8 @@
 module jp.el {
-    requires javafx.controls;
-    requires javafx.fxml;
     requires com.fasterxml.jackson.databind;
     requires com.fasterxml.jackson.core;
 
-    opens jp.el to javafx.fxml, com.fasterxml.jackson.databind;
+    opens jp.el to com.fasterxml.jackson.databind;
     exports jp.el;
-}
\ No newline at end of file
+    exports jp.el.cli;
+}
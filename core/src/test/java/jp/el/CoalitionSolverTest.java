@@ -0,0 +1,221 @@
+package jp.el;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// CoalitionSolver を手で作った議席・協力度で確かめる (政党 A, B, C, ... の id は 0, 1, 2, ...)
+class CoalitionSolverTest {
+    private static final int A = 0, B = 1, C = 2, D = 3;
+
+    private static List<Party> parties(String... names) {
+        List<Party> list = new ArrayList<>();
+        for (String name : names) list.add(new Party(name));
+        return list;
+    }
+
+    // pairs は {i, j, 協力度} の並び。指定のないペアは 80
+    private static CooperationMatrix matrix(int n, double[]... pairs) {
+        double[] values = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) values[i * n + j] = i == j ? 100.0 : 80.0;
+        }
+        for (double[] pair : pairs) {
+            int i = (int) pair[0], j = (int) pair[1];
+            values[i * n + j] = pair[2];
+            values[j * n + i] = pair[2];
+        }
+        return new CooperationMatrix(n, values);
+    }
+
+    private static long mask(int... ids) {
+        long m = 0;
+        for (int id : ids) m |= 1L << id;
+        return m;
+    }
+
+    @Test
+    void findsAllMinimalWinningCoalitionsRankedByCooperation() {
+        CoalitionSolver solver = new CoalitionSolver(parties("A", "B", "C"),
+                matrix(3, new double[]{A, B, 50}, new double[]{A, C, 90}, new double[]{B, C, 70}), 10);
+        int[] seats = {40, 35, 25};
+
+        // 最小勝利連合は AB, AC, BC の3つ (ABC は1党抜けても過半数なので入らない)
+        assertEquals(3, solver.solve(seats, 51));
+        assertEquals(mask(A, C), solver.getMask(0));
+        assertEquals(90.0, solver.getScore(0));
+        assertEquals(65, solver.getSeats(0));
+        assertEquals(mask(B, C), solver.getMask(1));
+        assertEquals(mask(A, B), solver.getMask(2));
+        for (int r = 0; r < 3; r++) assertEquals(2, solver.getSize(r));
+    }
+
+    @Test
+    void equalCooperationPrefersFewerSeats() {
+        CoalitionSolver solver = new CoalitionSolver(parties("A", "B", "C", "D"), matrix(4), 10);
+        int[] seats = {30, 30, 25, 15};
+
+        // AB(60), AC(55), BC(55)。ACD などは AC で過半数に届いた時点で打ち切られる
+        assertEquals(3, solver.solve(seats, 51));
+        assertEquals(55, solver.getSeats(0));
+        assertEquals(55, solver.getSeats(1));
+        assertEquals(mask(A, B), solver.getMask(2));
+        assertEquals(60, solver.getSeats(2));
+    }
+
+    @Test
+    void keepsOnlyTheTopK() {
+        CoalitionSolver solver = new CoalitionSolver(parties("A", "B", "C"),
+                matrix(3, new double[]{A, B, 50}, new double[]{A, C, 90}, new double[]{B, C, 70}), 1);
+        assertEquals(1, solver.solve(new int[]{40, 35, 25}, 51));
+        assertEquals(mask(A, C), solver.getMask(0));
+    }
+
+    @Test
+    void pairsBelowTheCooperationThresholdAreExcluded() {
+        double below = CoalitionSolver.MIN_COOPERATION - 1;
+        CoalitionSolver solver = new CoalitionSolver(parties("A", "B", "C"),
+                matrix(3, new double[]{A, B, below}), 10);
+        int[] seats = {40, 35, 25};
+
+        assertEquals(2, solver.solve(seats, 51));
+        for (int r = 0; r < solver.getFound(); r++) {
+            assertNotEquals(mask(A, B), solver.getMask(r) & mask(A, B), "A and B must not govern together");
+        }
+        assertEquals(mask(A, C), solver.formGovernment(seats, 51));
+    }
+
+    @Test
+    void leaderWithoutCompatiblePartnersGovernsAlone() {
+        double below = CoalitionSolver.MIN_COOPERATION - 1;
+        CoalitionSolver solver = new CoalitionSolver(parties("A", "B", "C"),
+                matrix(3, new double[]{A, B, below}, new double[]{A, C, below}), 10);
+        int[] seats = {40, 35, 25};
+
+        // B と C なら過半数を作れるが、政権は第1党の A を軸にするので A の少数与党になる
+        assertEquals(1, solver.solve(seats, 51));
+        assertEquals(mask(B, C), solver.getMask(0));
+        assertEquals(mask(A), solver.formGovernment(seats, 51));
+    }
+
+    @Test
+    void tieAtTheTopPicksTheLowerId() {
+        double below = CoalitionSolver.MIN_COOPERATION - 1;
+        CoalitionSolver solver = new CoalitionSolver(parties("A", "B", "C"),
+                matrix(3, new double[]{A, B, below}, new double[]{A, C, below}, new double[]{B, C, 90}), 10);
+        int[] seats = {40, 40, 20};
+
+        // B + C のほうが協力度は高いが、同数の第1党は id の小さい A なので A の単独になる
+        assertEquals(mask(A), solver.formGovernment(seats, 51));
+        assertEquals(mask(B, C), solver.formGovernment(new int[]{39, 40, 20}, 51));
+    }
+
+    @Test
+    void singlePartyMajorityGovernsAlone() {
+        CoalitionSolver solver = new CoalitionSolver(parties("A", "B", "C"), matrix(3), 10);
+        int[] seats = {60, 30, 10};
+
+        assertEquals(mask(A), solver.formGovernment(seats, 51));
+        solver.solve(seats, 51);
+        assertEquals(mask(A), solver.getMask(0));
+        assertEquals(100.0, solver.getScore(0));
+        assertEquals(1, solver.getSize(0));
+    }
+
+    @Test
+    void independentsNeverJoin() {
+        CoalitionSolver solver = new CoalitionSolver(parties("A", "無所属", "C"), matrix(3), 10);
+        int[] seats = {40, 35, 25};
+
+        assertEquals(1, solver.solve(seats, 51));
+        assertEquals(mask(A, C), solver.getMask(0));
+        // 無所属が第1党ならその単独
+        assertEquals(mask(B), solver.formGovernment(new int[]{25, 40, 35}, 51));
+    }
+
+    @Test
+    void noMajorityPossible() {
+        double below = CoalitionSolver.MIN_COOPERATION - 1;
+        CoalitionSolver solver = new CoalitionSolver(parties("A", "B"), matrix(2, new double[]{A, B, below}), 10);
+        assertEquals(0, solver.solve(new int[]{40, 35}, 51));
+        assertEquals(mask(A), solver.formGovernment(new int[]{40, 35}, 51));
+        assertEquals(0L, solver.formGovernment(new int[]{0, 0}, 51));
+    }
+
+    // 以下は実際の政党・協力度で、ランダムな議席 (同数の第1党や議席0の党を含む) について政権の規則を確かめる
+    private static final int MAJORITY = 233;
+
+    @Test
+    void leaderIsAlwaysInGovernment() {
+        ElectionData data = new ElectionData(1);
+        CoalitionSolver solver = new CoalitionSolver(data.getParties(), data.getCooperationMatrix(), 5);
+        assertEquals(0L, solver.formGovernment(new int[data.getParties().size()], MAJORITY));
+        SplittableRandom rand = new SplittableRandom(2);
+        for (int i = 0; i < 20000; i++) {
+            int[] seats = randomSeats(rand, data.getParties().size());
+            int leader = leader(seats);
+            long government = solver.formGovernment(seats, MAJORITY);
+            if (leader < 0) {
+                assertEquals(0L, government);
+                continue;
+            }
+            assertNotEquals(0L, government & (1L << leader), "leader " + leader + " missing for " + Arrays.toString(seats));
+            for (long m = government; m != 0; m &= m - 1) {
+                assertTrue(seats[Long.numberOfTrailingZeros(m)] > 0, "party without seats in government");
+            }
+        }
+    }
+
+    @Test
+    void singlePartyMajorityAlwaysGovernsAlone() {
+        ElectionData data = new ElectionData(1);
+        CoalitionSolver solver = new CoalitionSolver(data.getParties(), data.getCooperationMatrix(), 5);
+        SplittableRandom rand = new SplittableRandom(3);
+        int n = data.getParties().size();
+        for (int i = 0; i < 5000; i++) {
+            int[] seats = new int[n];
+            int leader = rand.nextInt(n);
+            seats[leader] = MAJORITY + rand.nextInt(40);
+            int rest = 465 - seats[leader];
+            for (int p = 0; p < n && rest > 0; p++) {
+                if (p == leader) continue;
+                seats[p] = rand.nextInt(rest + 1);
+                rest -= seats[p];
+            }
+            assertEquals(1L << leader, solver.formGovernment(seats, MAJORITY));
+        }
+    }
+
+    // 合計 465 のランダムな議席。3回に1回は上位2党を同数にし、5回に1回は議席0の党を混ぜる
+    private static int[] randomSeats(SplittableRandom rand, int n) {
+        int[] seats = new int[n];
+        int rest = 465;
+        for (int p = 0; p < n; p++) {
+            if (rand.nextInt(5) == 0) continue;
+            seats[p] = rand.nextInt(Math.min(rest, 200) + 1);
+            rest -= seats[p];
+        }
+        if (rand.nextInt(3) == 0) {
+            int a = rand.nextInt(n), b = rand.nextInt(n);
+            int top = Math.max(seats[a], seats[b]);
+            for (int s : seats) top = Math.max(top, s);
+            seats[a] = top;
+            seats[b] = top;
+        }
+        return seats;
+    }
+
+    // 第1党 (同数なら id の小さい方。議席がなければ -1)
+    private static int leader(int[] seats) {
+        int leader = -1;
+        for (int p = 0; p < seats.length; p++) {
+            if (seats[p] > 0 && (leader < 0 || seats[p] > seats[leader])) leader = p;
+        }
+        return leader;
+    }
+}
@@ -0,0 +1,123 @@
+package jp.el;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// ドント式の配分 (DHondtAllocator) と、それをブロックごとに使う比例代表 (ProportionalEngine) を確かめる
+class DHondtAllocatorTest {
+
+    private static int[] allocate(int[] votes, int seatCount) {
+        int[] out = new int[votes.length];
+        new DHondtAllocator(votes.length).allocate(votes, 0, votes.length, seatCount, out);
+        return out;
+    }
+
+    @Test
+    void textbookExample() {
+        // 5党・7議席の定番の表: 商の上位7つは 340, 280, 170, 160, 140, 113.3, 93.3
+        assertArrayEquals(new int[]{3, 3, 1, 0, 0}, allocate(new int[]{340_000, 280_000, 160_000, 60_000, 15_000}, 7));
+        // 4党・8議席
+        assertArrayEquals(new int[]{4, 3, 1, 0}, allocate(new int[]{100_000, 80_000, 30_000, 20_000}, 8));
+    }
+
+    @Test
+    void tiesGoToTheLowerIndex() {
+        assertArrayEquals(new int[]{1, 0}, allocate(new int[]{100, 100}, 1));
+        assertArrayEquals(new int[]{0, 1, 0}, allocate(new int[]{0, 100, 100}, 1));
+        // 2議席目で 200/2 と 100/1 が並ぶ
+        assertArrayEquals(new int[]{2, 0}, allocate(new int[]{200, 100}, 2));
+        assertArrayEquals(new int[]{1, 1}, allocate(new int[]{100, 200}, 2));
+    }
+
+    @Test
+    void zeroVotesGetNoSeats() {
+        assertArrayEquals(new int[]{0, 5, 0}, allocate(new int[]{0, 1, 0}, 5));
+        assertArrayEquals(new int[]{0, 0, 0}, allocate(new int[]{0, 0, 0}, 5));
+    }
+
+    @Test
+    void allocatesOnlyInsideTheRange() {
+        int[] votes = {999, 999, 300, 100, 999};
+        int[] out = {-1, -1, -1, -1, -1};
+        new DHondtAllocator(2).allocate(votes, 2, 2, 4, out);
+        assertArrayEquals(new int[]{-1, -1, 3, 1, -1}, out);
+    }
+
+    @Test
+    void matchesTheDivisorTable() {
+        // 除数表を全部作って上位を数える素朴な方法と一致するか (同じ商は番号の小さい方)
+        SplittableRandom rand = new SplittableRandom(1);
+        DHondtAllocator allocator = new DHondtAllocator(9);
+        for (int t = 0; t < 2000; t++) {
+            int n = 1 + rand.nextInt(9);
+            int seatCount = rand.nextInt(30);
+            int[] votes = new int[n];
+            for (int i = 0; i < n; i++) votes[i] = rand.nextInt(4) == 0 ? 0 : rand.nextInt(1000);
+            int[] out = new int[n];
+            allocator.allocate(votes, 0, n, seatCount, out);
+            assertArrayEquals(divisorTable(votes, seatCount), out, Arrays.toString(votes) + " / " + seatCount);
+        }
+    }
+
+    private static int[] divisorTable(int[] votes, int seatCount) {
+        int[] seats = new int[votes.length];
+        for (int s = 0; s < seatCount; s++) {
+            int best = -1;
+            for (int i = 0; i < votes.length; i++) {
+                if (votes[i] == 0) continue;
+                if (best < 0 || (long) votes[i] * (seats[best] + 1) > (long) votes[best] * (seats[i] + 1)) best = i;
+            }
+            if (best < 0) break;
+            seats[best]++;
+        }
+        return seats;
+    }
+
+    @Test
+    void independentsAreExcludedFromProportional() {
+        Party a = new Party("A");
+        Party independent = new Party("無所属");
+        ElectionTable table = new ElectionTable.Builder(List.of(a, independent))
+                .addDistrict("東京1区", ElectionData.prefectureIdOf("東京都"))
+                .addCandidate("a", a).addCandidate("i", independent)
+                .build();
+        ProportionalEngine engine = new ProportionalEngine(table);
+        int[] seats = new int[2];
+        engine.allocate(new int[]{10, 1_000_000}, seats);
+
+        // 東京ブロックの議席は全部 A。無所属の票はブロックの票にも入らない
+        int tokyo = ProportionalBlocks.blockOf(ElectionData.prefectureIdOf("東京都"));
+        assertArrayEquals(new int[]{ProportionalBlocks.getSeats(tokyo), 0}, seats);
+        assertEquals(0, engine.getBlockVotes(tokyo, 1));
+        assertEquals(10, engine.getBlockVotes(tokyo, 0));
+    }
+
+    @Test
+    void blockSeatsSumTo176() {
+        assertEquals(176, ProportionalBlocks.TOTAL_SEATS);
+        int sum = 0;
+        for (int b = 0; b < ProportionalBlocks.BLOCK_COUNT; b++) sum += ProportionalBlocks.getSeats(b);
+        assertEquals(ProportionalBlocks.TOTAL_SEATS, sum);
+
+        ElectionTable table = new ElectionData(1).getTable();
+        ProportionalEngine engine = new ProportionalEngine(table);
+        SplittableRandom rand = new SplittableRandom(2);
+        int[] votes = table.newVoteBuffer();
+        int[] seats = new int[table.getPartyCount()];
+        for (int t = 0; t < 20; t++) {
+            for (int c = 0; c < votes.length; c++) votes[c] = 1 + rand.nextInt(100_000);
+            engine.allocate(votes, seats);
+            assertEquals(ProportionalBlocks.TOTAL_SEATS, Arrays.stream(seats).sum());
+            for (int b = 0; b < ProportionalBlocks.BLOCK_COUNT; b++) {
+                int blockSum = 0;
+                for (int p = 0; p < table.getPartyCount(); p++) blockSum += engine.getBlockSeats(b, p);
+                assertEquals(ProportionalBlocks.getSeats(b), blockSum, ProportionalBlocks.getName(b));
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package jp.el;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// TrialStoreWriter で書いて TrialStore で読み直し、問い合わせの結果が書いた試行を直接数えた値と一致するか確かめる
+class TrialStoreTest {
+    private static final int PARTIES = 3;
+    private static final int DISTRICTS = 4;
+    private static final int BLOCK = TrialStoreWriter.TRIALS_PER_BLOCK;
+
+    @TempDir
+    Path dir;
+
+    // 政党 A, B, C。選挙区ごとの候補者の政党は lineup で指定する
+    private static ElectionTable table(int[][] lineup) {
+        List<Party> parties = List.of(new Party("A"), new Party("B"), new Party("C"));
+        ElectionTable.Builder builder = new ElectionTable.Builder(parties);
+        for (int d = 0; d < lineup.length; d++) {
+            builder.addDistrict("第" + (d + 1) + "区", 0);
+            for (int p : lineup[d]) builder.addCandidate("候補" + d + "-" + p, parties.get(p));
+        }
+        return builder.build();
+    }
+
+    private static ElectionTable table() {
+        return table(new int[][]{{0, 1, 2}, {0, 1}, {1, 2}, {0, 2}});
+    }
+
+    // 書いた試行 (議席 [試行 * 政党数 + 政党]、当選政党 [試行 * 選挙区数 + 選挙区])
+    private static final class Trials {
+        final int[] seats;
+        final byte[] winners;
+        final int count;
+
+        Trials(int count, long seed) {
+            this.count = count;
+            this.seats = new int[count * PARTIES];
+            this.winners = new byte[count * DISTRICTS];
+            SplittableRandom rand = new SplittableRandom(seed);
+            for (int t = 0; t < count; t++) {
+                for (int p = 0; p < PARTIES; p++) seats[t * PARTIES + p] = rand.nextInt(300);
+                for (int d = 0; d < DISTRICTS; d++) {
+                    // 選挙区ごとに勝ちやすい政党を変え、当選者なし (-1) も混ぜる
+                    int r = rand.nextInt(10);
+                    winners[t * DISTRICTS + d] = (byte) (r == 0 ? -1 : r < 7 ? d % PARTIES : rand.nextInt(PARTIES));
+                }
+            }
+        }
+
+        void appendTo(TrialStoreWriter writer, int from, int to) throws IOException {
+            for (int t = from; t < to; t++) writer.append(seats, t * PARTIES, winners, t * DISTRICTS);
+        }
+    }
+
+    private static void assertMatches(Trials trials, int count, TrialStore store) {
+        assertEquals(count, store.getTrialCount());
+        for (int p = 0; p < PARTIES; p++) {
+            for (int s : new int[]{0, 1, 100, 150, 299, 300}) {
+                long expected = 0;
+                for (int t = 0; t < count; t++) {
+                    if (trials.seats[t * PARTIES + p] >= s) expected++;
+                }
+                assertEquals(expected, store.countAtLeast(p, s), "party " + p + " seats " + s);
+                assertEquals(count == 0 ? 0.0 : (double) expected / count, store.probabilityAtLeast(p, s), 1e-12);
+            }
+            long sum = 0;
+            for (int t = 0; t < count; t++) sum += trials.seats[t * PARTIES + p];
+            assertEquals(count == 0 ? 0.0 : (double) sum / count, store.expectedSeats(p), 1e-9);
+        }
+
+        long[][] wins = new long[DISTRICTS][PARTIES];
+        for (int t = 0; t < count; t++) {
+            for (int d = 0; d < DISTRICTS; d++) {
+                int w = trials.winners[t * DISTRICTS + d];
+                if (w >= 0) wins[d][w]++;
+            }
+        }
+        long[] flips = store.flipCounts();
+        long[][] stored = store.winCounts();
+        for (int d = 0; d < DISTRICTS; d++) {
+            assertArrayEquals(wins[d], stored[d], "district " + d);
+            long total = 0, max = 0;
+            for (int p = 0; p < PARTIES; p++) {
+                total += wins[d][p];
+                max = Math.max(max, wins[d][p]);
+                assertEquals(wins[d][p], store.countWins(d, p));
+            }
+            assertEquals(total - max, flips[d], "flips in district " + d);
+        }
+    }
+
+    private void roundTrip(int count) throws IOException {
+        ElectionTable table = table();
+        Path path = dir.resolve("trials-" + count + ".bin");
+        Trials trials = new Trials(count, count);
+        try (TrialStoreWriter writer = TrialStoreWriter.open(path, table)) {
+            trials.appendTo(writer, 0, count);
+            assertEquals(count, writer.getTrialCount());
+        }
+        TrialStore store = TrialStore.open(path);
+        assertEquals(TrialStore.lineupHash(table), store.getLineupHash());
+        assertEquals(1, store.indexOfParty("B"));
+        assertMatches(trials, count, store);
+        store.close();
+    }
+
+    @Test
+    void roundTripFewerThanOneBlock() throws IOException {
+        roundTrip(100);
+    }
+
+    @Test
+    void roundTripExactlyOneBlock() throws IOException {
+        roundTrip(BLOCK);
+    }
+
+    @Test
+    void roundTripMoreThanOneBlock() throws IOException {
+        roundTrip(2 * BLOCK + 123);
+    }
+
+    @Test
+    void reopenedWriterAppendsAfterExistingTrials() throws IOException {
+        ElectionTable table = table();
+        Path path = dir.resolve("trials.bin");
+        Trials trials = new Trials(BLOCK + 500, 7);
+        try (TrialStoreWriter writer = TrialStoreWriter.open(path, table)) {
+            trials.appendTo(writer, 0, 300);
+        }
+        try (TrialStoreWriter writer = TrialStoreWriter.open(path, table)) {
+            assertEquals(300, writer.getTrialCount());
+            trials.appendTo(writer, 300, trials.count);
+        }
+        assertMatches(trials, trials.count, TrialStore.open(path));
+    }
+
+    @Test
+    void differentLineupIsRejected() throws IOException {
+        Path path = dir.resolve("trials.bin");
+        try (TrialStoreWriter writer = TrialStoreWriter.open(path, table())) {
+            new Trials(10, 1).appendTo(writer, 0, 10);
+        }
+        long size = Files.size(path);
+
+        // 政党・選挙区の名前は同じで候補者の政党だけが違う
+        ElectionTable other = table(new int[][]{{0, 1, 2}, {0, 2}, {1, 2}, {0, 2}});
+        assertNotEquals(TrialStore.lineupHash(table()), TrialStore.lineupHash(other));
+        IOException e = assertThrows(IOException.class, () -> TrialStoreWriter.open(path, other));
+        assertTrue(e.getMessage().contains("lineup"), e.getMessage());
+        assertEquals(size, Files.size(path));
+        assertEquals(10, TrialStore.open(path).getTrialCount());
+    }
+
+    @Test
+    void truncatedTrailingBlockIsIgnoredAndRepaired() throws IOException {
+        ElectionTable table = table();
+        Path path = dir.resolve("trials.bin");
+        Trials trials = new Trials(BLOCK + 200, 11);
+        try (TrialStoreWriter writer = TrialStoreWriter.open(path, table)) {
+            trials.appendTo(writer, 0, BLOCK + 100);
+        }
+        // 2つ目のブロック (100試行) の途中で切れたことにする
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 50);
+        }
+        assertMatches(trials, BLOCK, TrialStore.open(path));
+
+        // 次の書き手は途切れた末尾を切り詰めてから書くので、切れたブロックの続きには混ざらない
+        // 期待値は 最初のブロック + 後から書いた 100 試行 (同じシードで作り直して後半を詰める)
+        Trials after = new Trials(BLOCK + 200, 11);
+        System.arraycopy(trials.seats, (BLOCK + 100) * PARTIES, after.seats, BLOCK * PARTIES, 100 * PARTIES);
+        System.arraycopy(trials.winners, (BLOCK + 100) * DISTRICTS, after.winners, BLOCK * DISTRICTS, 100 * DISTRICTS);
+        try (TrialStoreWriter writer = TrialStoreWriter.open(path, table)) {
+            assertEquals(BLOCK, writer.getTrialCount());
+            trials.appendTo(writer, BLOCK + 100, BLOCK + 200);
+        }
+        assertMatches(after, BLOCK + 100, TrialStore.open(path));
+    }
+}
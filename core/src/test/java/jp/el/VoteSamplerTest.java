@@ -0,0 +1,147 @@
+package jp.el;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// VoteSampler の3つの方式 (n < 16 のベルヌーイ、平均 < 10 の幾何分布、正規近似) をそれぞれ確かめる
+class VoteSamplerTest {
+    // 方式ごとの (n, p): どれも p <= 0.5 なので、1 - p にすると p > 0.5 の対称性の経路を通る
+    private static final int[][] REGIMES_N = {{10}, {200}, {3000}};
+    private static final double[] REGIMES_P = {0.3, 0.02, 0.3};
+
+    @Test
+    void sumEqualsTotalVotersInEveryRegime() {
+        SplittableRandom rand = new SplittableRandom(1);
+        int[][] weightSets = {
+                {5, 3, 2},              // 少ない票 (ベルヌーイ)
+                {1, 1000, 2, 500, 3},   // 小さい重みが混ざる (幾何分布)
+                {40, 35, 25, 20, 10}    // 大きい票 (正規近似)
+        };
+        int[] totals = {12, 3000, 6000};
+        for (int s = 0; s < weightSets.length; s++) {
+            int[] weights = weightSets[s];
+            int[] votes = new int[weights.length];
+            for (int i = 0; i < 2000; i++) {
+                VoteSampler.sample(rand, totals[s], weights, weights.length, votes);
+                int sum = 0;
+                for (int v : votes) {
+                    assertTrue(v >= 0 && v <= totals[s], "votes out of range: " + v);
+                    sum += v;
+                }
+                assertEquals(totals[s], sum);
+            }
+        }
+    }
+
+    @Test
+    void writesAtOffsetOnly() {
+        int[] votes = {-1, -1, -1, -1, -1};
+        VoteSampler.sample(new SplittableRandom(2), 100, new int[]{1, 1}, 2, votes, 2);
+        assertEquals(-1, votes[0]);
+        assertEquals(-1, votes[1]);
+        assertEquals(100, votes[2] + votes[3]);
+        assertEquals(-1, votes[4]);
+    }
+
+    @Test
+    void zeroWeightsGetNoVotes() {
+        SplittableRandom rand = new SplittableRandom(3);
+        int[] weights = {0, 5, 0, 5, 0};
+        int[] votes = new int[weights.length];
+        for (int total : new int[]{7, 150, 5000}) {
+            for (int i = 0; i < 500; i++) {
+                VoteSampler.sample(rand, total, weights, weights.length, votes);
+                assertEquals(0, votes[0]);
+                assertEquals(0, votes[2]);
+                assertEquals(0, votes[4]);
+                assertEquals(total, votes[1] + votes[3]);
+            }
+        }
+    }
+
+    @Test
+    void allZeroWeightsGiveEverythingToTheLast() {
+        int[] votes = new int[3];
+        VoteSampler.sample(new SplittableRandom(4), 42, new int[]{0, 0, 0}, 3, votes);
+        assertArrayEquals(new int[]{0, 0, 42}, votes);
+    }
+
+    @Test
+    void singleCandidateGetsAllVotes() {
+        int[] votes = new int[1];
+        for (int total : new int[]{0, 1, 15, 3000}) {
+            VoteSampler.sample(new SplittableRandom(5), total, new int[]{7}, 1, votes);
+            assertEquals(total, votes[0]);
+        }
+    }
+
+    @Test
+    void binomialEdgeCases() {
+        SplittableRandom rand = new SplittableRandom(6);
+        assertEquals(0, VoteSampler.binomial(rand, 0, 0.5));
+        assertEquals(0, VoteSampler.binomial(rand, 100, 0.0));
+        assertEquals(100, VoteSampler.binomial(rand, 100, 1.0));
+    }
+
+    @Test
+    void binomialStaysWithinBounds() {
+        SplittableRandom rand = new SplittableRandom(7);
+        for (int r = 0; r < REGIMES_N.length; r++) {
+            int n = REGIMES_N[r][0];
+            for (double p : new double[]{REGIMES_P[r], 1.0 - REGIMES_P[r], 1e-6, 1.0 - 1e-6}) {
+                for (int i = 0; i < 20_000; i++) {
+                    int x = VoteSampler.binomial(rand, n, p);
+                    assertTrue(x >= 0 && x <= n, "B(" + n + ", " + p + ") = " + x);
+                }
+            }
+        }
+    }
+
+    // 平均 n·p、分散 n·p·(1-p) に合うこと (p > 0.5 は n - B(n, 1-p) の経路)
+    @Test
+    void binomialMeanAndVarianceMatchInEveryRegime() {
+        for (int r = 0; r < REGIMES_N.length; r++) {
+            int n = REGIMES_N[r][0];
+            for (double p : new double[]{REGIMES_P[r], 1.0 - REGIMES_P[r]}) {
+                assertMoments(new SplittableRandom(100 + r), n, p);
+            }
+        }
+    }
+
+    // p > 0.5 は p' = 1 - p と鏡像の分布になる
+    @Test
+    void highProbabilityMirrorsLowProbability() {
+        int n = 200;
+        int draws = 200_000;
+        double low = 0;
+        double high = 0;
+        SplittableRandom a = new SplittableRandom(8);
+        SplittableRandom b = new SplittableRandom(9);
+        for (int i = 0; i < draws; i++) {
+            low += VoteSampler.binomial(a, n, 0.02);
+            high += n - VoteSampler.binomial(b, n, 0.98);
+        }
+        assertEquals(low / draws, high / draws, 0.05);
+    }
+
+    private static void assertMoments(SplittableRandom rand, int n, double p) {
+        int draws = 200_000;
+        double sum = 0;
+        double sumSq = 0;
+        for (int i = 0; i < draws; i++) {
+            int x = VoteSampler.binomial(rand, n, p);
+            sum += x;
+            sumSq += (double) x * x;
+        }
+        double mean = sum / draws;
+        double variance = sumSq / draws - mean * mean;
+        double expectedMean = n * p;
+        double expectedVariance = n * p * (1.0 - p);
+        // 平均は標準誤差の5倍、分散は5% まで (正規近似は四捨五入の分 1/12 だけ分散が大きい)
+        assertEquals(expectedMean, mean, 5 * Math.sqrt(expectedVariance / draws), "mean of B(" + n + ", " + p + ")");
+        assertEquals(expectedVariance, variance, 0.05 * expectedVariance, "variance of B(" + n + ", " + p + ")");
+    }
+}
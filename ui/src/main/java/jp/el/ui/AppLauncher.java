@@ -1,4 +1,4 @@
-package jp.el;
+package jp.el.ui;
 
 public class AppLauncher {
     public static void main(String[] args) {
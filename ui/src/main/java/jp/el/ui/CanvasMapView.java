@@ -0,0 +1,272 @@
+package jp.el.ui;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.FillRule;
+import javafx.scene.shape.StrokeLineJoin;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import jp.el.ElectionData;
+import jp.el.GeoJsonLoader;
+import jp.el.JapanMapData;
+import jp.el.MapGeometry;
+import jp.el.MapIndex;
+import jp.el.MapLod;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+// 全図形を Canvas 1枚に描く地図
+// 図形ごとのノードを作らず、MapGeometry のプリミティブ配列から直接描く (市区町村単位の数千図形を想定)。
+// マウスの当たり判定は MapIndex (グリッド + 点の内外判定) で行う。
+public class CanvasMapView extends PrefectureMapView {
+    private static final double VIEW_WIDTH = 800;
+    private static final double VIEW_HEIGHT = 600;
+    private static final long REVEAL_INTERVAL_NANOS = 120_000_000L; // 1図形ずつ塗る間隔
+    private static final Font LABEL_FONT = Font.font("Arial", FontWeight.BOLD, 14);
+
+    private final Canvas canvas = new Canvas(VIEW_WIDTH, VIEW_HEIGHT);
+    private final Tooltip tooltip = new Tooltip();
+    private final MapLod lod;
+    private final MapIndex index;
+    private final String[] shapeNames;     // 図形 -> コールバックに渡す名前
+    private final int[] shapePrefecture;   // 図形 -> 都道府県番号 (対応しなければ -1)
+    private final double[] labelAnchors;   // 図形ごとのラベル位置 (地図座標の x, y)
+    private final int[] revealOrder;       // 上 (北) から順
+
+    private MapGeometry geometry;          // 表示中の詳細度レベル
+    private double scale = 1, offsetX, offsetY;
+    private int hovered = -1;
+    private boolean labelsVisible = true;
+
+    // 結果表示の状態
+    private final Color[] fills;
+    private final String[] labels;
+    private final Color[] targetFills;     // 今回の結果の色・ラベル (アニメーションで fills / labels に移す)
+    private final String[] targetLabels;
+    private final RevealScheduler scheduler = new RevealScheduler(REVEAL_INTERVAL_NANOS, new RevealScheduler.Target() {
+        @Override
+        public void reveal(int shape) {
+            fills[shape] = targetFills[shape];
+            labels[shape] = targetLabels[shape];
+        }
+
+        @Override
+        public void frameDone() {
+            redraw();
+        }
+    });
+
+    public CanvasMapView() {
+        this.getStyleClass().add("map-container");
+
+        MapLod loaded = GeoJsonLoader.loadJapanLod();
+        lod = loaded != null ? loaded : MapLod.build(JapanMapData.toGeometry(), new float[]{0f});
+        MapGeometry base = lod.getLevel(0);
+        index = MapIndex.build(base);
+
+        int n = base.getShapeCount();
+        shapeNames = new String[n];
+        shapePrefecture = new int[n];
+        for (int s = 0; s < n; s++) {
+            int prefId = ElectionData.prefectureIdOf(base.getName(s));
+            shapePrefecture[s] = prefId;
+            shapeNames[s] = prefId >= 0 ? ElectionData.getPrefectureName(prefId) : base.getName(s);
+        }
+        labelAnchors = computeLabelAnchors(base);
+        revealOrder = IntStream.range(0, n).boxed()
+                .sorted(Comparator.comparingDouble(base::getMinY))
+                .mapToInt(Integer::intValue).toArray();
+
+        fills = new Color[n];
+        Arrays.fill(fills, Color.WHITE);
+        labels = new String[n];
+        targetFills = new Color[n];
+        targetLabels = new String[n];
+
+        fitMapToView();
+
+        canvas.setOnMouseMoved(e -> setHovered(pick(e.getX(), e.getY())));
+        canvas.setOnMouseExited(e -> setHovered(-1));
+        canvas.setOnMouseClicked(e -> {
+            int s = pick(e.getX(), e.getY());
+            if (s >= 0 && onPrefectureClick != null) {
+                onPrefectureClick.accept(shapeNames[s]);
+            }
+            e.consume(); // イベントが裏に抜けないようにする
+        });
+        this.getChildren().add(canvas);
+        redraw();
+    }
+
+    // 800x600 に収まる倍率を決め、それに合った詳細度レベルを選ぶ
+    private void fitMapToView() {
+        MapGeometry base = lod.getLevel(0);
+        double w = base.getMaxX() - base.getMinX();
+        double h = base.getMaxY() - base.getMinY();
+        if (w <= 0 || h <= 0) {
+            geometry = base;
+            return;
+        }
+        scale = Math.min(VIEW_WIDTH / w, VIEW_HEIGHT / h) * 0.95;
+        offsetX = (VIEW_WIDTH - w * scale) / 2 - base.getMinX() * scale;
+        offsetY = 20 - base.getMinY() * scale;
+        geometry = lod.getLevel(lod.levelForScale(scale));
+    }
+
+    private int pick(double screenX, double screenY) {
+        return index.find(geometry, (screenX - offsetX) / scale, (screenY - offsetY) / scale);
+    }
+
+    private void setHovered(int shape) {
+        if (shape == hovered) return;
+        hovered = shape;
+        if (shape >= 0) {
+            tooltip.setText(shapeNames[shape]);
+            Tooltip.install(canvas, tooltip);
+        } else {
+            Tooltip.uninstall(canvas, tooltip);
+        }
+        redraw();
+    }
+
+    @Override
+    public void setLabelsVisible(boolean visible) {
+        labelsVisible = visible;
+        redraw();
+    }
+
+    @Override
+    public void animateResults(String[] prefWinners, int[] prefSeats) {
+        Arrays.fill(labels, null);
+
+        int[] order = scheduler.buffer(revealOrder.length);
+        int count = 0;
+        for (int s : revealOrder) {
+            int prefId = shapePrefecture[s];
+            if (prefId >= 0 && prefWinners[prefId] != null) {
+                targetFills[s] = PartyColors.get(prefWinners[prefId]);
+                targetLabels[s] = String.valueOf(prefSeats[prefId]);
+                order[count++] = s;
+            } else {
+                fills[s] = Color.WHITE;
+            }
+        }
+        redraw();
+        scheduler.start(count);
+    }
+
+    @Override
+    public void showResults(String[] prefWinners, int[] prefSeats) {
+        scheduler.stop();
+        for (int s = 0; s < shapePrefecture.length; s++) {
+            int prefId = shapePrefecture[s];
+            if (prefId >= 0 && prefWinners[prefId] != null) {
+                fills[s] = PartyColors.get(prefWinners[prefId]);
+                labels[s] = String.valueOf(prefSeats[prefId]);
+            } else {
+                fills[s] = Color.WHITE;
+                labels[s] = null;
+            }
+        }
+        redraw();
+    }
+
+    private void redraw() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        gc.save();
+        gc.translate(offsetX, offsetY);
+        gc.scale(scale, scale);
+        gc.setFillRule(FillRule.EVEN_ODD);
+        gc.setLineJoin(StrokeLineJoin.ROUND);
+        gc.setStroke(Color.LIGHTGRAY);
+        gc.setLineWidth(0.5);
+        for (int s = 0; s < geometry.getShapeCount(); s++) {
+            tracePath(gc, s);
+            gc.setFill(fills[s]);
+            gc.fill();
+            gc.stroke();
+        }
+        // ホバー中の図形は最後に太線で描き直す (SVG版の toFront 相当)
+        if (hovered >= 0) {
+            tracePath(gc, hovered);
+            gc.setStroke(Color.BLACK);
+            gc.setLineWidth(1.0);
+            gc.stroke();
+        }
+        gc.restore();
+
+        if (labelsVisible) drawLabels(gc);
+    }
+
+    private void tracePath(GraphicsContext gc, int shape) {
+        int[] shapeRings = geometry.getShapeRingOffsets();
+        int[] ringPoints = geometry.getRingPointOffsets();
+        float[] coords = geometry.getCoords();
+        gc.beginPath();
+        for (int ring = shapeRings[shape]; ring < shapeRings[shape + 1]; ring++) {
+            int from = ringPoints[ring];
+            gc.moveTo(coords[from * 2], coords[from * 2 + 1]);
+            for (int i = from + 1; i < ringPoints[ring + 1]; i++) {
+                gc.lineTo(coords[i * 2], coords[i * 2 + 1]);
+            }
+            gc.closePath();
+        }
+    }
+
+    // 影の代わりに黒で1px ずらして描いてから白で重ねる (DropShadow エフェクトは使わない)
+    private void drawLabels(GraphicsContext gc) {
+        gc.setFont(LABEL_FONT);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        for (int s = 0; s < labels.length; s++) {
+            if (labels[s] == null) continue;
+            double x = labelAnchors[s * 2] * scale + offsetX;
+            double y = labelAnchors[s * 2 + 1] * scale + offsetY;
+            gc.setFill(Color.BLACK);
+            gc.fillText(labels[s], x + 1, y + 1);
+            gc.setFill(Color.WHITE);
+            gc.fillText(labels[s], x, y);
+        }
+    }
+
+    // 図形の中で一番面積の大きいリングの外接矩形の中心 (離島があっても本土側に置く)
+    private static double[] computeLabelAnchors(MapGeometry g) {
+        int[] shapeRings = g.getShapeRingOffsets();
+        int[] ringPoints = g.getRingPointOffsets();
+        float[] coords = g.getCoords();
+        double[] anchors = new double[g.getShapeCount() * 2];
+        for (int s = 0; s < g.getShapeCount(); s++) {
+            double bestArea = -1;
+            for (int ring = shapeRings[s]; ring < shapeRings[s + 1]; ring++) {
+                int from = ringPoints[ring];
+                int to = ringPoints[ring + 1];
+                double area = 0;
+                float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+                float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+                for (int i = from, j = to - 1; i < to; j = i++) {
+                    float x = coords[i * 2], y = coords[i * 2 + 1];
+                    area += (double) coords[j * 2] * y - (double) x * coords[j * 2 + 1];
+                    minX = Math.min(minX, x);
+                    minY = Math.min(minY, y);
+                    maxX = Math.max(maxX, x);
+                    maxY = Math.max(maxY, y);
+                }
+                area = Math.abs(area);
+                if (area > bestArea) {
+                    bestArea = area;
+                    anchors[s * 2] = (minX + maxX) / 2;
+                    anchors[s * 2 + 1] = (minY + maxY) / 2;
+                }
+            }
+        }
+        return anchors;
+    }
+}
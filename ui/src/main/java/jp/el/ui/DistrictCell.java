@@ -0,0 +1,122 @@
+package jp.el.ui;
+
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import jp.el.Candidate;
+import jp.el.District;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 選挙区カード。ノードは最初に一度だけ作り、updateItem では中身 (文字・バー・スタイル) だけを書き換える。
+// 候補者の行は候補者数が変わったときだけ増減させる。
+public class DistrictCell extends ListCell<District> {
+    private static final String WINNER_NAME_STYLE = "-fx-font-weight: bold; -fx-text-fill: #e74c3c;";
+    private static final String LOSER_ACCENT_STYLE = "-fx-accent: #95a5a6;";
+
+    private final boolean isSimulationMode;
+    private final VBox card = new VBox(10);
+    private final Label dName = new Label();
+    private final GridPane grid = new GridPane();
+    private final List<Row> rows = new ArrayList<>();
+
+    // 候補者1人分の行
+    private static class Row {
+        final Label nameLabel = new Label();
+        final ProgressBar pb = new ProgressBar();
+        final Label votesLabel = new Label();
+    }
+
+    public DistrictCell(boolean isSimulationMode) {
+        this.isSimulationMode = isSimulationMode;
+        setStyle("-fx-background-color: transparent;");
+
+        card.getStyleClass().add("district-card"); // CSS適用
+
+        dName.setFont(Font.font("System", FontWeight.BOLD, 16));
+        dName.setTextFill(Color.web("#2c3e50"));
+
+        grid.setHgap(10);
+        grid.setVgap(5);
+        grid.setAlignment(Pos.CENTER_LEFT);
+
+        // カラム定義
+        ColumnConstraints col1 = new ColumnConstraints(); col1.setPrefWidth(180);
+        ColumnConstraints col2 = new ColumnConstraints(); col2.setHgrow(Priority.ALWAYS);
+        ColumnConstraints col3 = new ColumnConstraints(); col3.setPrefWidth(80);
+        grid.getColumnConstraints().addAll(col1, col2, col3);
+
+        card.getChildren().addAll(dName, new Separator(), grid);
+    }
+
+    @Override
+    protected void updateItem(District d, boolean empty) {
+        super.updateItem(d, empty);
+
+        if (empty || d == null) {
+            setGraphic(null);
+            return;
+        }
+
+        dName.setText("📍 " + d.getName());
+
+        List<Candidate> candidates = d.getCandidates();
+        resizeRows(candidates.size());
+
+        Candidate winner = isSimulationMode ? d.getWinner() : null;
+        int totalVotes = 0;
+        for (Candidate c : candidates) totalVotes += c.getVotes();
+        if (totalVotes == 0) totalVotes = 1;
+
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate c = candidates.get(i);
+            Row row = rows.get(i);
+            boolean isWinner = winner != null && c.getIndex() == winner.getIndex();
+
+            // 名前
+            String partyName = c.getParty().getName();
+            String text = c.getName() + " (" + partyName + ")";
+            row.nameLabel.setText(isWinner ? "💮 " + text : text);
+            row.nameLabel.setStyle(isWinner ? WINNER_NAME_STYLE : null);
+
+            if (isSimulationMode) {
+                // バー (スタイル文字列は PartyColors がキャッシュしているので毎回作らない)
+                row.pb.setProgress((double) c.getVotes() / totalVotes);
+                row.pb.setStyle(isWinner ? PartyColors.getAccentStyle(partyName) : LOSER_ACCENT_STYLE);
+
+                // 票数
+                row.votesLabel.setText(c.getVotes() + "票");
+            }
+        }
+
+        if (getGraphic() != card) setGraphic(card);
+    }
+
+    // 候補者数が変わったときだけ行のノードを足したり外したりする
+    private void resizeRows(int count) {
+        while (rows.size() < count) {
+            Row row = new Row();
+            row.nameLabel.setTextFill(Color.BLACK); // 明示的に黒
+            row.pb.setMaxWidth(Double.MAX_VALUE);
+            row.votesLabel.setAlignment(Pos.CENTER_RIGHT);
+            rows.add(row);
+        }
+        int shown = grid.getChildren().size() / (isSimulationMode ? 3 : 1);
+        for (int r = shown; r < count; r++) {
+            Row row = rows.get(r);
+            grid.add(row.nameLabel, 0, r);
+            if (isSimulationMode) {
+                grid.add(row.pb, 1, r);
+                grid.add(row.votesLabel, 2, r);
+            }
+        }
+        for (int r = shown - 1; r >= count; r--) {
+            Row row = rows.get(r);
+            grid.getChildren().removeAll(row.nameLabel, row.pb, row.votesLabel);
+        }
+    }
+}
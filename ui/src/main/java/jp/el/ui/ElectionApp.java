@@ -1,15 +1,17 @@
-package jp.el;
+package jp.el.ui;
 
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
+import jp.el.ElectionData;
 
 public class ElectionApp extends Application {
 
     private Stage stage;
     private Scene scene;
     private ElectionData data; // データはここで一つだけ持つ
+    private TrialRecorder recorder; // 「一斉投票を実行」の結果の保存 (画面をまたいで1つ)
 
     @Override
     public void start(Stage primaryStage) {
@@ -17,6 +19,7 @@ public class ElectionApp extends Application {
 
         // 1. データのロード
         this.data = new ElectionData();
+        this.recorder = new TrialRecorder(data);
 
         // 2. 最初の画面（タイトル）を表示するためのダミーRootを作成
         StackPane root = new StackPane();
@@ -48,6 +51,7 @@ public class ElectionApp extends Application {
         ResultView view = new ResultView(
                 data,
                 true, // isSimulationMode = true
+                recorder,
                 () -> showTitleScreen() // 戻るボタンの動作
         );
         scene.setRoot(view.getView());
@@ -58,11 +62,18 @@ public class ElectionApp extends Application {
         ResultView view = new ResultView(
                 data,
                 false, // isSimulationMode = false (一覧モード)
+                recorder,
                 () -> showTitleScreen() // 戻るボタンの動作
         );
         scene.setRoot(view.getView());
     }
 
+    // 終了時に保存しきれていない試行結果を書き出す
+    @Override
+    public void stop() {
+        if (recorder != null) recorder.close();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
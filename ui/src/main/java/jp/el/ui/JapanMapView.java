@@ -0,0 +1,216 @@
+package jp.el.ui;
+
+import javafx.geometry.Bounds;
+import javafx.scene.Group;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tooltip;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.SVGPath;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import jp.el.ElectionData;
+import jp.el.GeoJsonLoader;
+import jp.el.JapanMapData;
+import jp.el.MapGeometry;
+import jp.el.MapLod;
+
+import java.util.*;
+
+public class JapanMapView extends PrefectureMapView {
+    private final List<SVGPath> shapes = new ArrayList<>();
+    private int[] shapePrefecture; // 図形 -> 都道府県番号 (対応しなければ -1)
+    private final Pane labelLayer = new Pane();
+    private final Group contentGroup = new Group();
+    private MapLod lod;           // GeoJSON がない場合 (JapanMapData) は null
+    private int currentLevel = -1;
+
+    // 結果アニメーション用 (ラベルは図形ごとに1つだけ作って使い回す)
+    private static final long REVEAL_INTERVAL_NANOS = 120_000_000L;
+    private static final DropShadow LABEL_SHADOW = new DropShadow(2, Color.BLACK);
+    private static final Font LABEL_FONT = Font.font("Arial", FontWeight.BOLD, 14);
+    private int[] revealOrder;    // 上 (北) から順
+    private Label[] labels;       // 図形 -> ラベル (最初に結果を表示するときに作る)
+    private Color[] targetFills;  // 今回の結果 (アニメーションで図形に反映する)
+    private String[] targetLabels;
+    private final RevealScheduler scheduler = new RevealScheduler(REVEAL_INTERVAL_NANOS, new RevealScheduler.Target() {
+        @Override
+        public void reveal(int shape) {
+            shapes.get(shape).setFill(targetFills[shape]);
+            Label label = labels[shape];
+            label.setText(targetLabels[shape]);
+            label.setVisible(true);
+        }
+
+        @Override
+        public void frameDone() {
+            // ノードの更新は次のパルスでまとめて描画される
+        }
+    });
+
+    public JapanMapView() {
+        this.getStyleClass().add("map-container");
+        initializeMap();
+    }
+
+    private void initializeMap() {
+        List<String> names = new ArrayList<>();
+        List<String> contents = new ArrayList<>();
+        lod = GeoJsonLoader.loadJapanLod();
+        if (lod != null) {
+            // 最初は一番粗いレベルで作り、fitMapToView で表示倍率に合ったレベルに差し替える
+            currentLevel = lod.getLevelCount() - 1;
+            MapGeometry g = lod.getLevel(currentLevel);
+            String[] svg = lod.getSvgPaths(currentLevel);
+            for (int s = 0; s < g.getShapeCount(); s++) {
+                names.add(g.getName(s));
+                contents.add(svg[s]);
+            }
+        } else {
+            JapanMapData.PATHS.forEach((name, content) -> {
+                names.add(name);
+                contents.add(content);
+            });
+        }
+
+        List<Integer> prefIds = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            // 図形名 (GeoJSONでは "東京" などの場合もある) を起動時に一度だけ都道府県番号へ変換する
+            int prefId = ElectionData.prefectureIdOf(names.get(i));
+            String prefName = prefId >= 0 ? ElectionData.getPrefectureName(prefId) : names.get(i);
+            SVGPath path = new SVGPath();
+            path.setContent(contents.get(i));
+            path.getStyleClass().add("map-path");
+            // ★追加: クリックイベント
+            path.setOnMouseClicked(e -> {
+                if (onPrefectureClick != null) {
+                    onPrefectureClick.accept(prefName);
+                }
+                e.consume(); // イベントが裏に抜けないようにする
+            });
+
+            path.setFill(Color.WHITE);
+            path.setStroke(Color.LIGHTGRAY);
+            path.setStrokeWidth(0.5);
+
+            Tooltip.install(path, new Tooltip(prefName));
+
+            path.setOnMouseEntered(e -> {
+                path.setStroke(Color.BLACK);
+                path.setStrokeWidth(1.0);
+                path.toFront();
+            });
+            path.setOnMouseExited(e -> {
+                path.setStroke(Color.LIGHTGRAY);
+                path.setStrokeWidth(0.5);
+            });
+
+            contentGroup.getChildren().add(path);
+            shapes.add(path);
+            prefIds.add(prefId);
+        }
+        shapePrefecture = prefIds.stream().mapToInt(Integer::intValue).toArray();
+        targetFills = new Color[shapes.size()];
+        targetLabels = new String[shapes.size()];
+
+        // 表示順は図形の位置だけで決まるので起動時に一度だけ並べる
+        Integer[] order = new Integer[shapes.size()];
+        double[] minY = new double[shapes.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            minY[i] = shapes.get(i).getBoundsInLocal().getMinY();
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> minY[i]));
+        revealOrder = Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+
+        labelLayer.setMouseTransparent(true);
+        contentGroup.getChildren().add(labelLayer);
+        this.getChildren().add(contentGroup);
+
+        javafx.application.Platform.runLater(this::fitMapToView);
+    }
+    private void fitMapToView() {
+        Bounds bounds = contentGroup.getBoundsInParent();
+        if (bounds.getWidth() == 0) return;
+
+        double viewWidth = 800;
+        double viewHeight = 600;
+        double scale = Math.min(viewWidth / bounds.getWidth(), viewHeight / bounds.getHeight()) * 0.95;
+
+        contentGroup.setScaleX(scale);
+        contentGroup.setScaleY(scale);
+        applyLevelForScale(scale);
+
+        double scaledW = bounds.getWidth() * scale;
+        contentGroup.setLayoutX((viewWidth - scaledW) / 2 - bounds.getMinX() * scale);
+        contentGroup.setLayoutY(20 - bounds.getMinY() * scale);
+    }
+
+    // 表示倍率に合った詳細度のパスに差し替える (800x600 に全国を収めるなら元データの頂点はほとんど不要)
+    private void applyLevelForScale(double scale) {
+        if (lod == null) return;
+        int level = lod.levelForScale(scale);
+        if (level == currentLevel) return;
+        String[] svg = lod.getSvgPaths(level);
+        for (int i = 0; i < shapes.size(); i++) shapes.get(i).setContent(svg[i]);
+        currentLevel = level;
+    }
+
+    // ★追加: ラベルの表示・非表示を切り替えるメソッド
+    @Override
+    public void setLabelsVisible(boolean visible) {
+        labelLayer.setVisible(visible);
+    }
+
+    @Override
+    public void animateResults(String[] prefWinners, int[] prefSeats) {
+        if (labels == null) createLabels();
+
+        int[] order = scheduler.buffer(revealOrder.length);
+        int count = 0;
+        for (int i : revealOrder) {
+            labels[i].setVisible(false);
+            int prefId = shapePrefecture[i];
+            if (prefId >= 0 && prefWinners[prefId] != null) {
+                targetFills[i] = PartyColors.get(prefWinners[prefId]);
+                targetLabels[i] = String.valueOf(prefSeats[prefId]);
+                order[count++] = i;
+            } else {
+                shapes.get(i).setFill(Color.WHITE);
+            }
+        }
+        scheduler.start(count);
+    }
+
+    @Override
+    public void showResults(String[] prefWinners, int[] prefSeats) {
+        if (labels == null) createLabels();
+        scheduler.stop();
+        for (int i = 0; i < shapes.size(); i++) {
+            int prefId = shapePrefecture[i];
+            boolean hasWinner = prefId >= 0 && prefWinners[prefId] != null;
+            shapes.get(i).setFill(hasWinner ? PartyColors.get(prefWinners[prefId]) : Color.WHITE);
+            if (hasWinner) labels[i].setText(String.valueOf(prefSeats[prefId]));
+            labels[i].setVisible(hasWinner);
+        }
+    }
+
+    // 図形ごとのラベルを作って図形の中央に置く (表示倍率が決まった後に1回だけ)
+    private void createLabels() {
+        labels = new Label[shapes.size()];
+        for (int i = 0; i < labels.length; i++) {
+            Bounds b = shapes.get(i).getBoundsInParent();
+            Label label = new Label();
+            label.setFont(LABEL_FONT);
+            label.setTextFill(Color.WHITE);
+            label.setEffect(LABEL_SHADOW);
+            label.setVisible(false);
+
+            label.setLayoutX(b.getMinX() + b.getWidth() / 2 - 10);
+            label.setLayoutY(b.getMinY() + b.getHeight() / 2 - 10);
+            labels[i] = label;
+        }
+        labelLayer.getChildren().setAll(labels);
+    }
+}
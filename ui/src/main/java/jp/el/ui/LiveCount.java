@@ -0,0 +1,148 @@
+package jp.el.ui;
+
+import javafx.animation.AnimationTimer;
+import jp.el.CountUpdate;
+import jp.el.ElectionData;
+import jp.el.ElectionSnapshot;
+import jp.el.ElectionTable;
+import jp.el.LiveCountProducer;
+import jp.el.Party;
+import jp.el.ProportionalEngine;
+import jp.el.SimulationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// 開票速報モード
+// LiveCountProducer が別スレッドで報をキューに積み、こちらは AnimationTimer で1フレームに1回だけまとめて取り出す。
+// Platform.runLater は使わないので、毎秒数千報あってもFXスレッドのイベントキューが溢れることはない。
+// 取り出した報はテーブルの票数に足し込み、議席数を数え直してから onFrame を1回だけ呼ぶ。
+public class LiveCount {
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final int MAX_UPDATES_PER_FRAME = 4096;
+    private static final long DURATION_MILLIS = 15_000;
+    private static final int STEPS_PER_DISTRICT = 10;
+
+    private final ElectionData data;
+    private final ElectionSnapshot result;
+    private final Runnable onFrame;
+    private final Runnable onFinished;
+    private final BlockingQueue<CountUpdate> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final List<CountUpdate> batch = new ArrayList<>(MAX_UPDATES_PER_FRAME);
+    private final int[] districtCounted; // 選挙区ごとの開票済み票数
+    private final ProportionalEngine proportional;
+    private final int[] districtSeats;     // recountSeats の作業用 (毎フレーム0に戻して使う)
+    private final int[] proportionalSeats;
+    private int finishedDistricts;
+    private Thread producer;
+    private boolean done;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            drain();
+        }
+    };
+
+    // onFrame / onFinished はFXスレッドで呼ばれる
+    public LiveCount(ElectionData data, ElectionSnapshot result, Runnable onFrame, Runnable onFinished) {
+        this.data = data;
+        this.result = result;
+        this.onFrame = onFrame;
+        this.onFinished = onFinished;
+        this.districtCounted = new int[data.getTable().getDistrictCount()];
+        this.proportional = new ProportionalEngine(data.getTable());
+        this.districtSeats = new int[data.getTable().getPartyCount()];
+        this.proportionalSeats = new int[data.getTable().getPartyCount()];
+    }
+
+    // 票数・議席数を0に戻して開票を始める (FXスレッドから呼ぶこと)
+    public void start() {
+        ElectionTable table = data.getTable();
+        table.resetVotes();
+        table.getPartyList().forEach(Party::reset);
+
+        SplittableRandom rand = new SplittableRandom(SimulationContext.mix64(result.getSeed() + result.getTrial()));
+        producer = new Thread(new LiveCountProducer(table, result, rand, queue, DURATION_MILLIS, STEPS_PER_DISTRICT),
+                "live-count");
+        producer.setDaemon(true);
+        producer.start();
+        timer.start();
+    }
+
+    // 残りを待たずに最終結果を表示する
+    public void finishNow() {
+        if (done) return;
+        producer.interrupt();
+        finish();
+    }
+
+    // 結果を反映せずに止める (画面を離れるとき。onFinished も呼ばない)
+    public void stop() {
+        if (done) return;
+        done = true;
+        timer.stop();
+        if (producer != null) producer.interrupt();
+    }
+
+    // 開票済みの選挙区数 (速報の表示用)
+    public int getFinishedDistricts() { return finishedDistricts; }
+
+    private void drain() {
+        if (queue.drainTo(batch, MAX_UPDATES_PER_FRAME) == 0) return;
+
+        ElectionTable table = data.getTable();
+        int[] votes = table.getVotes();
+        int[] offsets = table.getDistrictOffsets();
+        boolean ended = false;
+        for (CountUpdate u : batch) {
+            if (u == CountUpdate.END) {
+                ended = true;
+                continue;
+            }
+            int from = offsets[u.district];
+            for (int i = 0; i < u.deltas.length; i++) {
+                votes[from + i] += u.deltas[i];
+                districtCounted[u.district] += u.deltas[i];
+            }
+            if (u.finished) finishedDistricts++;
+        }
+        batch.clear();
+
+        if (ended) {
+            finish();
+        } else {
+            recountSeats(table);
+            onFrame.run();
+        }
+    }
+
+    // 開票が始まった選挙区の現時点の1位を議席として数え、比例は開票済みの票でドント式の配分をやり直す
+    private void recountSeats(ElectionTable table) {
+        int[] votes = table.getVotes();
+        int[] candidateParty = table.getCandidateParty();
+        Arrays.fill(districtSeats, 0);
+        for (int d = 0; d < districtCounted.length; d++) {
+            if (districtCounted[d] == 0) continue;
+            districtSeats[candidateParty[table.getWinner(d, votes)]]++;
+        }
+        proportional.allocate(votes, proportionalSeats);
+        List<Party> parties = table.getPartyList();
+        for (int p = 0; p < districtSeats.length; p++) {
+            parties.get(p).setSeats(districtSeats[p] + proportionalSeats[p], proportionalSeats[p]);
+        }
+    }
+
+    // 最終結果はスナップショットからそのまま反映する (途中の報の取りこぼしがあっても必ず一致させる)
+    private void finish() {
+        done = true;
+        timer.stop();
+        finishedDistricts = districtCounted.length;
+        result.applyTo(data);
+        onFinished.run();
+    }
+}
@@ -0,0 +1,35 @@
+package jp.el.ui;
+
+import javafx.concurrent.Task;
+import jp.el.SimulationContext;
+import jp.el.SimulationEngine;
+import jp.el.SimulationResult;
+
+// 多数回のモンテカルロ試行をFXスレッドの外で行うタスク (分析タブの「連立確率」用)
+public class MonteCarloTask extends Task<SimulationResult> {
+    private final SimulationEngine engine;
+    private final int trials;
+    private final SimulationContext context;
+
+    public MonteCarloTask(SimulationEngine engine, int trials, SimulationContext context) {
+        this.engine = engine;
+        this.trials = trials;
+        this.context = context;
+        updateTitle("モンテカルロ " + trials + "回");
+    }
+
+    @Override
+    protected SimulationResult call() {
+        return engine.run(trials, context, new SimulationEngine.Monitor() {
+            @Override
+            public boolean isCancelled() {
+                return MonteCarloTask.this.isCancelled();
+            }
+
+            @Override
+            public void progress(long done, long total) {
+                updateProgress(done, total);
+            }
+        });
+    }
+}
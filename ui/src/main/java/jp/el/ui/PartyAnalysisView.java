@@ -1,6 +1,7 @@
-package jp.el;
+package jp.el.ui;
 
 import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -12,8 +13,14 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import jp.el.CoalitionBuilder;
+import jp.el.CooperationMatrix;
+import jp.el.IdeologyAxis;
+import jp.el.Party;
+import jp.el.SimulationResult;
 
 import java.util.*;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 public class PartyAnalysisView extends TabPane {
@@ -22,8 +29,20 @@ public class PartyAnalysisView extends TabPane {
     private final TableView<PartyStats> statsTable;
     private final Label statusLabel;
     private final VBox partyListContainer;
-
-    public PartyAnalysisView() {
+    private final CooperationMatrix cooperation;
+
+    // 連立確率タブ (モンテカルロ)
+    private final ComboBox<Integer> trialsBox;
+    private final Button monteCarloButton;
+    private final ProgressBar monteCarloProgress;
+    private final Label monteCarloSummary;
+    private final TableView<CoalitionStats> coalitionTable;
+    private final TableView<GovernmentStats> governmentTable;
+    private IntConsumer onMonteCarlo;
+    private Task<?> monteCarloTask;
+
+    public PartyAnalysisView(CooperationMatrix cooperation) {
+        this.cooperation = cooperation;
         this.setStyle("-fx-background-color: transparent;");
         this.setTabClosingPolicy(TabClosingPolicy.UNAVAILABLE);
 
@@ -68,19 +87,111 @@ public class PartyAnalysisView extends TabPane {
         scrollPane.setContent(partyListContainer);
         Tab tab2 = new Tab("📖 政党一覧", scrollPane);
 
-        this.getTabs().addAll(tab1, tab2);
+        // タブ3: 連立確率 (試行ごとに連立を組ませた頻度)
+        VBox probabilityContent = new VBox(15);
+        probabilityContent.setPadding(new Insets(20));
+        probabilityContent.setStyle("-fx-background-color: white; -fx-background-radius: 10;");
+
+        Label probabilityTitle = new Label("政権の形 (モンテカルロ)");
+        probabilityTitle.setFont(Font.font("System", FontWeight.BOLD, 20));
+
+        trialsBox = new ComboBox<>(FXCollections.observableArrayList(1000, 5000, 20000, 100000));
+        trialsBox.setValue(5000);
+        monteCarloButton = new Button("シミュレーション開始");
+        monteCarloButton.setOnAction(e -> {
+            if (monteCarloTask != null) {
+                monteCarloTask.cancel();
+            } else if (onMonteCarlo != null) {
+                onMonteCarlo.accept(trialsBox.getValue());
+            }
+        });
+        monteCarloProgress = new ProgressBar(0);
+        monteCarloProgress.setPrefWidth(160);
+        monteCarloProgress.setVisible(false);
+        HBox controls = new HBox(10, new Label("試行回数"), trialsBox, monteCarloButton, monteCarloProgress);
+        controls.setAlignment(Pos.CENTER_LEFT);
+
+        monteCarloSummary = new Label("まだ実行されていません");
+        monteCarloSummary.setFont(Font.font("System", FontWeight.BOLD, 16));
+
+        coalitionTable = createCoalitionTable();
+        governmentTable = createGovernmentTable();
+        HBox tables = new HBox(20, coalitionTable, governmentTable);
+        HBox.setHgrow(coalitionTable, Priority.ALWAYS);
+        HBox.setHgrow(governmentTable, Priority.ALWAYS);
+        VBox.setVgrow(tables, Priority.ALWAYS);
+
+        probabilityContent.getChildren().addAll(probabilityTitle, controls, monteCarloSummary, tables);
+        Tab tab3 = new Tab("🎲 連立確率", probabilityContent);
+
+        this.getTabs().addAll(tab1, tab2, tab3);
     }
 
-    public void updateData(List<Party> parties) {
-        // 全政党の与党フラグを一旦リセット
-        parties.forEach(p -> p.setGovernment(false));
+    // 「シミュレーション開始」で呼ばれる (引数は試行回数)
+    public void setOnMonteCarlo(IntConsumer handler) {
+        this.onMonteCarlo = handler;
+    }
+
+    // 実行中のタスクの進捗を表示する (ボタンは中止に変わる)
+    public void monteCarloStarted(Task<?> task) {
+        monteCarloTask = task;
+        monteCarloProgress.progressProperty().bind(task.progressProperty());
+        monteCarloProgress.setVisible(true);
+        monteCarloButton.setText("中止");
+        trialsBox.setDisable(true);
+    }
 
+    // 結果を表示する (中止・失敗のときは result = null)
+    public void monteCarloFinished(SimulationResult result) {
+        monteCarloTask = null;
+        monteCarloProgress.progressProperty().unbind();
+        monteCarloProgress.setVisible(false);
+        monteCarloButton.setText("シミュレーション開始");
+        trialsBox.setDisable(false);
+        if (result == null) return;
+
+        monteCarloSummary.setText(String.format("%,d回 (シード %d) / 単独過半数 %.1f%% / 少数与党 %.1f%%",
+                result.getTrials(), result.getSeed(),
+                result.getSinglePartyMajorityProbability() * 100, result.getMinorityGovernmentProbability() * 100));
+
+        ObservableList<CoalitionStats> coalitions = FXCollections.observableArrayList();
+        for (SimulationResult.CoalitionFrequency f : result.getTopCoalitions(20)) {
+            String name = f.getParties().stream().map(Party::getName).collect(Collectors.joining("・"));
+            if (f.getParties().size() > 1) name += "連立";
+            coalitions.add(new CoalitionStats(name, f.getCount(), String.format("%.1f%%", f.getProbability() * 100)));
+        }
+        coalitionTable.setItems(coalitions);
+
+        // 与党入りの確率が高い順
+        ObservableList<GovernmentStats> governments = FXCollections.observableArrayList();
+        List<Party> parties = result.getParties();
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < parties.size(); i++) order.add(i);
+        order.sort(Comparator.comparingDouble(i -> -result.getGovernmentProbability(i)));
+        for (int i : order) {
+            governments.add(new GovernmentStats(parties.get(i).getName(),
+                    String.format("%.1f%%", result.getGovernmentProbability(i) * 100),
+                    String.format("%.1f (比例 %.1f)", result.getExpectedSeats(i), result.getExpectedProportionalSeats(i)),
+                    String.format("%.1f%%", result.getMajorityProbability(i) * 100)));
+        }
+        governmentTable.setItems(governments);
+    }
+
+    public void updateData(List<Party> parties) {
         // --- 1. 政党一覧タブ更新 (支持率順) ---
         partyListContainer.getChildren().clear();
         parties.stream()
                 .sorted(Comparator.comparingInt(Party::getPopularity).reversed())
                 .forEach(p -> partyListContainer.getChildren().add(createPartyCard(p)));
 
+        updateSeats(parties);
+    }
+
+    // 分析タブ (議席・連立) だけを更新する。開票速報中は議席が変わるたびにこちらだけ呼ぶ
+    public void updateSeats(List<Party> parties) {
+        // 全政党の与党フラグを一旦リセット
+        parties.forEach(p -> p.setGovernment(false));
+
         // --- 2. 分析タブ更新 ---
         // まず議席順にソート
         parties.sort(Comparator.comparingInt(Party::getSeats).reversed());
@@ -94,7 +205,7 @@ public class PartyAnalysisView extends TabPane {
         }
 
         // ★ 連立政権 形成ロジック
-        List<Party> coalition = formCoalition(parties, totalSeats);
+        List<Party> coalition = CoalitionBuilder.formCoalition(parties, totalSeats, cooperation);
 
         // 連立に入った党にフラグを立てる
         coalition.forEach(p -> p.setGovernment(true));
@@ -145,69 +256,21 @@ public class PartyAnalysisView extends TabPane {
         ObservableList<PartyStats> tableData = FXCollections.observableArrayList();
 
         // 先頭行に「連立政権」を追加 (rank=0)
-        tableData.add(new PartyStats(0, "★ " + coalitionName, coalitionSeats, coalitionShare));
+        int coalitionProportional = coalition.stream().mapToInt(Party::getProportionalSeats).sum();
+        tableData.add(new PartyStats(0, "★ " + coalitionName, coalitionSeats,
+                coalitionSeats - coalitionProportional, coalitionProportional, coalitionShare));
 
         int rank = 1;
         for (Party p : parties) {
             double share = (double) p.getSeats() / totalSeats * 100.0;
             // 与党入りしている場合は矢印をつける
             String nameDecor = coalition.contains(p) ? "  ↳ " + p.getName() : p.getName();
-            tableData.add(new PartyStats(rank++, nameDecor, p.getSeats(), String.format("%.1f%%", share)));
+            tableData.add(new PartyStats(rank++, nameDecor, p.getSeats(), p.getDistrictSeats(), p.getProportionalSeats(),
+                    String.format("%.1f%%", share)));
         }
         statsTable.setItems(tableData);
     }
 
-    // ★ 連立形成ロジック
-    // ★ 連立形成ロジック (無所属除外対応版)
-    private List<Party> formCoalition(List<Party> sortedParties, int totalSeats) {
-        List<Party> coalition = new ArrayList<>();
-        if (sortedParties.isEmpty()) return coalition;
-
-        // 第1党は必ず入る
-        Party leader = sortedParties.get(0);
-        coalition.add(leader);
-
-        // ★追加: 第一党が「無所属」なら連立を組まない（単独扱い）
-        if (leader.getName().equals("無所属")) {
-            return coalition;
-        }
-
-        int currentSeats = leader.getSeats();
-        int majority = totalSeats / 2 + 1;
-
-        // 単独過半数なら終了
-        if (currentSeats >= majority) {
-            return coalition;
-        }
-
-        // 連立パートナー候補 (第1党以外)
-        List<Party> partners = new ArrayList<>(sortedParties);
-        partners.remove(leader);
-
-        // 協力度が高い順にソート
-        partners.sort((p1, p2) -> Double.compare(leader.calculateCooperation(p2), leader.calculateCooperation(p1)));
-
-        // 協力度の高い1つか2つの党と組む
-        for (Party p : partners) {
-            // ★追加: パートナーが「無所属」なら連立に加えない
-            if (p.getName().equals("無所属")) continue;
-
-            // 協力度が極端に低い(30未満)なら組まない
-            if (leader.calculateCooperation(p) < 30.0) continue;
-
-            coalition.add(p);
-            currentSeats += p.getSeats();
-
-            // 過半数到達したら終了
-            if (currentSeats >= majority) break;
-
-            // すでに3党(リーダー+2党)なら終了
-            if (coalition.size() >= 3) break;
-        }
-
-        return coalition;
-    }
-
     private HBox createPartyCard(Party p) {
         HBox card = new HBox(15);
         card.setPadding(new Insets(15));
@@ -274,26 +337,16 @@ public class PartyAnalysisView extends TabPane {
             return container;
         }
 
-        Map<String, Integer> ordered = new LinkedHashMap<>();
-        ordered.put("保守", ideologies.get("保守"));
-        ordered.put("リベラル", ideologies.get("リベラル"));
-        ordered.put("ポピュリズム", ideologies.get("ポピュリズム"));
-        ordered.put("リバタリアニズム", ideologies.get("リバタリアニズム"));
-        ordered.put("環境主義", ideologies.get("環境主義"));
-        ordered.put("積極財政", ideologies.get("積極財政"));
-        ordered.put("緊縮財政", ideologies.get("緊縮財政"));
-        ordered.put("ナショナリズム", ideologies.get("ナショナリズム"));
-
         GridPane grid = new GridPane();
         grid.setHgap(12);
         grid.setVgap(6);
 
         int row = 0;
-        for (Map.Entry<String, Integer> entry : ordered.entrySet()) {
-            Label name = new Label(entry.getKey());
+        for (IdeologyAxis axis : IdeologyAxis.values()) {
+            Label name = new Label(axis.getLabel());
             name.getStyleClass().add("ideology-name");
 
-            Integer value = entry.getValue();
+            Integer value = ideologies.get(axis.getLabel());
             String scoreText = value == null ? "-" : String.valueOf(value);
             Label score = new Label(scoreText);
             score.getStyleClass().add("ideology-score");
@@ -336,25 +389,105 @@ public class PartyAnalysisView extends TabPane {
         colSeats.setPrefWidth(80);
         colSeats.setStyle("-fx-alignment: CENTER-RIGHT;");
 
+        // 議席数の内訳
+        TableColumn<PartyStats, Integer> colDistrict = new TableColumn<>("小選挙区");
+        colDistrict.setCellValueFactory(new PropertyValueFactory<>("districtSeats"));
+        colDistrict.setPrefWidth(70);
+        colDistrict.setStyle("-fx-alignment: CENTER-RIGHT;");
+
+        TableColumn<PartyStats, Integer> colProportional = new TableColumn<>("比例");
+        colProportional.setCellValueFactory(new PropertyValueFactory<>("proportionalSeats"));
+        colProportional.setPrefWidth(60);
+        colProportional.setStyle("-fx-alignment: CENTER-RIGHT;");
+
         TableColumn<PartyStats, String> colShare = new TableColumn<>("占有率");
         colShare.setCellValueFactory(new PropertyValueFactory<>("share"));
         colShare.setPrefWidth(80);
         colShare.setStyle("-fx-alignment: CENTER-RIGHT;");
 
-        table.getColumns().addAll(colRank, colName, colSeats, colShare);
+        table.getColumns().addAll(colRank, colName, colSeats, colDistrict, colProportional, colShare);
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        return table;
+    }
+
+
+    private TableView<CoalitionStats> createCoalitionTable() {
+        TableView<CoalitionStats> table = new TableView<>();
+
+        TableColumn<CoalitionStats, String> colName = new TableColumn<>("政権");
+        colName.setCellValueFactory(new PropertyValueFactory<>("name"));
+        colName.setPrefWidth(220);
+
+        TableColumn<CoalitionStats, Long> colCount = new TableColumn<>("回数");
+        colCount.setCellValueFactory(new PropertyValueFactory<>("count"));
+        colCount.setStyle("-fx-alignment: CENTER-RIGHT;");
+
+        TableColumn<CoalitionStats, String> colShare = new TableColumn<>("確率");
+        colShare.setCellValueFactory(new PropertyValueFactory<>("probability"));
+        colShare.setStyle("-fx-alignment: CENTER-RIGHT;");
+
+        table.getColumns().addAll(colName, colCount, colShare);
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        return table;
+    }
+
+    private TableView<GovernmentStats> createGovernmentTable() {
+        TableView<GovernmentStats> table = new TableView<>();
+
+        TableColumn<GovernmentStats, String> colName = new TableColumn<>("政党名");
+        colName.setCellValueFactory(new PropertyValueFactory<>("name"));
+        colName.setPrefWidth(120);
+
+        TableColumn<GovernmentStats, String> colGovernment = new TableColumn<>("与党入り");
+        colGovernment.setCellValueFactory(new PropertyValueFactory<>("government"));
+        colGovernment.setStyle("-fx-alignment: CENTER-RIGHT;");
+
+        TableColumn<GovernmentStats, String> colSeats = new TableColumn<>("期待議席");
+        colSeats.setCellValueFactory(new PropertyValueFactory<>("expectedSeats"));
+        colSeats.setStyle("-fx-alignment: CENTER-RIGHT;");
+
+        TableColumn<GovernmentStats, String> colMajority = new TableColumn<>("単独過半数");
+        colMajority.setCellValueFactory(new PropertyValueFactory<>("majority"));
+        colMajority.setStyle("-fx-alignment: CENTER-RIGHT;");
+
+        table.getColumns().addAll(colName, colGovernment, colSeats, colMajority);
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         return table;
     }
 
+    public static class CoalitionStats {
+        private final String name; private final long count; private final String probability;
+        public CoalitionStats(String name, long count, String probability) {
+            this.name = name; this.count = count; this.probability = probability;
+        }
+        public String getName() { return name; }
+        public long getCount() { return count; }
+        public String getProbability() { return probability; }
+    }
+
+    public static class GovernmentStats {
+        private final String name; private final String government; private final String expectedSeats; private final String majority;
+        public GovernmentStats(String name, String government, String expectedSeats, String majority) {
+            this.name = name; this.government = government; this.expectedSeats = expectedSeats; this.majority = majority;
+        }
+        public String getName() { return name; }
+        public String getGovernment() { return government; }
+        public String getExpectedSeats() { return expectedSeats; }
+        public String getMajority() { return majority; }
+    }
 
     public static class PartyStats {
         private final int rank; private final String name; private final int seats; private final String share;
-        public PartyStats(int rank, String name, int seats, String share) {
+        private final int districtSeats; private final int proportionalSeats;
+        public PartyStats(int rank, String name, int seats, int districtSeats, int proportionalSeats, String share) {
             this.rank = rank; this.name = name; this.seats = seats; this.share = share;
+            this.districtSeats = districtSeats; this.proportionalSeats = proportionalSeats;
         }
         public int getRank() { return rank; }
         public String getName() { return name; }
         public int getSeats() { return seats; }
+        public int getDistrictSeats() { return districtSeats; }
+        public int getProportionalSeats() { return proportionalSeats; }
         public String getShare() { return share; }
     }
 }
\ No newline at end of file
@@ -1,11 +1,15 @@
-package jp.el;
+package jp.el.ui;
 
 import javafx.scene.paint.Color;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PartyColors {
     private static final Map<String, Color> COLORS = new HashMap<>();
+    // 文字列の組み立ては一度だけ (リストのセルから毎回呼ばれるため)
+    private static final Map<String, String> HEX_CACHE = new ConcurrentHashMap<>();
+    private static final Map<String, String> ACCENT_STYLE_CACHE = new ConcurrentHashMap<>();
 
     static {
         COLORS.put("自由党", Color.web("#e74c3c"));
@@ -25,8 +29,15 @@ public class PartyColors {
 
     // CSS用にHEXコード(#RRGGBB)で取得
     public static String getHex(String partyName) {
-        Color c = get(partyName);
-        return String.format("#%02x%02x%02x",
-                (int)(c.getRed()*255), (int)(c.getGreen()*255), (int)(c.getBlue()*255));
+        return HEX_CACHE.computeIfAbsent(partyName, name -> {
+            Color c = get(name);
+            return String.format("#%02x%02x%02x",
+                    (int)(c.getRed()*255), (int)(c.getGreen()*255), (int)(c.getBlue()*255));
+        });
+    }
+
+    // ProgressBar 用の "-fx-accent: #RRGGBB;"
+    public static String getAccentStyle(String partyName) {
+        return ACCENT_STYLE_CACHE.computeIfAbsent(partyName, name -> "-fx-accent: " + getHex(name) + ";");
     }
 }
\ No newline at end of file
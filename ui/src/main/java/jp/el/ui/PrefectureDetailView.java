@@ -1,4 +1,4 @@
-package jp.el;
+package jp.el.ui;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList; // ★これを追加
@@ -10,6 +10,7 @@ import javafx.scene.control.Label;
 import javafx.scene.layout.*;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import jp.el.PrefectureData;
 
 public class PrefectureDetailView extends VBox {
 
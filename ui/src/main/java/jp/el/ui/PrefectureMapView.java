@@ -0,0 +1,32 @@
+package jp.el.ui;
+
+import javafx.scene.layout.Pane;
+
+import java.util.function.Consumer;
+
+// 地図表示の共通部分 (SVGPath ノード版の JapanMapView と Canvas 版の CanvasMapView)
+public abstract class PrefectureMapView extends Pane {
+    // クリック時のコールバック (引数は都道府県名)
+    protected Consumer<String> onPrefectureClick;
+
+    public void setOnPrefectureClick(Consumer<String> handler) {
+        this.onPrefectureClick = handler;
+    }
+
+    // ラベル (議席数) の表示・非表示
+    public abstract void setLabelsVisible(boolean visible);
+
+    // prefWinners / prefSeats は都道府県番号で引く配列 (勝者がいなければ null)
+    public abstract void animateResults(String[] prefWinners, int[] prefSeats);
+
+    // アニメーションなしですぐに反映する (開票速報で毎フレーム呼ばれる)
+    public abstract void showResults(String[] prefWinners, int[] prefSeats);
+
+    // 通常は Canvas 版。-Djp.el.mapRenderer=svg で従来の SVGPath ノード版を使う
+    public static PrefectureMapView create() {
+        if ("svg".equalsIgnoreCase(System.getProperty("jp.el.mapRenderer"))) {
+            return new JapanMapView();
+        }
+        return new CanvasMapView();
+    }
+}
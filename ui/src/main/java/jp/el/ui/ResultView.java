@@ -0,0 +1,373 @@
+package jp.el.ui;
+
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Parent;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import jp.el.CooperationMatrix;
+import jp.el.District;
+import jp.el.ElectionData;
+import jp.el.ElectionSnapshot;
+import jp.el.ElectionTable;
+import jp.el.Party;
+import jp.el.PrefectureData;
+import jp.el.SimulationContext;
+import jp.el.SimulationEngine;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ResultView {
+    private final ElectionData data;
+    private final Runnable onBackAction;
+    private final boolean isSimulationMode;
+
+    private ListView<District> districtListView;
+    private PrefectureMapView mapView;
+    private StackPane mapWrapper; // ★追加: 地図とチェックボックスをまとめるラッパー
+    private PartyAnalysisView analysisView;
+    private Button actionButton;
+
+    // 画面上の1回きりの投票用乱数 (シードを記録しておけば同じ結果を再現できる)
+    private final SimulationEngine engine;
+    private final SimulationContext simulationContext = SimulationContext.random();
+    private int runCount = 0;
+    private int monteCarloCount = 0;
+
+    // 投票はFXスレッドの外で実行する (画面が固まらないように)。デーモンスレッドなのでアプリ終了は妨げない
+    // モンテカルロは別のスレッドで回し、実行中でも1回分の投票が待たされないようにする
+    private static final ExecutorService SIMULATION_EXECUTOR = daemonExecutor("election-simulation");
+    private static final ExecutorService MONTE_CARLO_EXECUTOR = daemonExecutor("election-monte-carlo");
+    private SimulationTask runningTask; // 実行中のタスク (なければ null)
+    private MonteCarloTask monteCarloTask; // 実行中のモンテカルロ (なければ null)
+    private boolean closed; // タイトルへ戻った後は届いた結果を無視する
+    private final TrialRecorder recorder; // 「一斉投票を実行」の結果の保存先 (アプリ全体で共有)
+    private ProgressBar progressBar;
+
+    // 開票速報モード (分析タブは重いので速報中は間引いて更新する)
+    private static final long ANALYSIS_INTERVAL_NANOS = 250_000_000L;
+    private CheckBox liveCheck;
+    private LiveCount liveCount; // 開票中 (なければ null)
+    private long lastAnalysisUpdate;
+
+    public ResultView(ElectionData data, boolean isSimulationMode, TrialRecorder recorder, Runnable onBackAction) {
+        this.data = data;
+        this.isSimulationMode = isSimulationMode;
+        this.recorder = recorder;
+        this.onBackAction = onBackAction;
+        this.engine = new SimulationEngine(data);
+    }
+    // ★追加
+    private PrefectureDetailView detailView;
+
+    public Parent getView() {
+        VBox root = new VBox(15);
+        root.getStyleClass().add("root-pane");
+        root.setAlignment(Pos.TOP_CENTER);
+
+        HBox header = new HBox(20);
+        header.setAlignment(Pos.CENTER_LEFT);
+        header.getStyleClass().add("header-bar");
+
+        Label title = new Label(isSimulationMode ? "衆院選シミュレーター" : "候補者データ一覧");
+        title.getStyleClass().add("header-title");
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+
+        ToggleButton listBtn = new ToggleButton("📋 リスト");
+        ToggleButton mapBtn = new ToggleButton("🗺️ 地図");
+        ToggleButton chartBtn = new ToggleButton("📊 分析");
+
+        ToggleGroup group = new ToggleGroup();
+        listBtn.setToggleGroup(group);
+        mapBtn.setToggleGroup(group);
+        chartBtn.setToggleGroup(group);
+
+        listBtn.setSelected(true);
+        listBtn.getStyleClass().add("toggle-button");
+        mapBtn.getStyleClass().add("toggle-button");
+        chartBtn.getStyleClass().add("toggle-button");
+
+        actionButton = new Button("一斉投票を実行");
+        actionButton.getStyleClass().add("action-button");
+        if (!isSimulationMode) actionButton.setVisible(false);
+
+        // 投票中の進捗 (選挙区単位)
+        progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(120);
+        progressBar.setVisible(false);
+
+        // 開票速報: 投票後に選挙区ごとの開票状況を少しずつ表示する
+        liveCheck = new CheckBox("開票速報");
+        liveCheck.setVisible(isSimulationMode);
+
+        header.getChildren().addAll(title, spacer, listBtn, mapBtn, chartBtn, liveCheck, progressBar, actionButton);
+
+        StackPane contentStack = new StackPane();
+        VBox.setVgrow(contentStack, Priority.ALWAYS);
+
+        // 1. リスト
+        districtListView = new ListView<>();
+        districtListView.setItems(FXCollections.observableArrayList(data.getDistricts()));
+        districtListView.setCellFactory(param -> new DistrictCell(isSimulationMode));
+        districtListView.setStyle("-fx-background-color: transparent;");
+
+        // 2. 地図 (★修正: チェックボックス付きのラッパーを作成)
+        // 2. 地図 (mapWrapper) の構築部分を修正
+        mapView = PrefectureMapView.create();
+
+        // ★追加: 詳細パネルの作成 (最初は非表示)
+        detailView = new PrefectureDetailView(() -> detailView.setVisible(false));
+        detailView.setVisible(false);
+
+        // ★追加: 地図クリック時の動作設定
+        mapView.setOnPrefectureClick(prefName -> {
+            // データを取得
+            PrefectureData pData = data.getPrefectureByName(prefName);
+            if (pData != null) {
+                // パネルにデータをセットして表示
+                detailView.setData(pData);
+                detailView.setVisible(true);
+                detailView.toFront(); // 最前面へ
+            }
+        });
+
+        // 地図上の議席数表示切替チェックボックス
+        CheckBox labelCheck = new CheckBox("議席数を表示");
+        labelCheck.setSelected(true);
+        labelCheck.getStyleClass().add("map-toggle");
+        labelCheck.setOnAction(e -> mapView.setLabelsVisible(labelCheck.isSelected()));
+
+        // 地図とチェックボックスを重ねる
+        mapWrapper = new StackPane(mapView, labelCheck, detailView);
+        StackPane.setMargin(labelCheck, new Insets(10));
+        mapWrapper.setVisible(false);
+
+
+        // 3. 分析
+        analysisView = new PartyAnalysisView(data.getCooperationMatrix());
+        analysisView.setVisible(false);
+        analysisView.setOnMonteCarlo(this::startMonteCarlo);
+        analysisView.updateData(data.getParties());
+
+        contentStack.getChildren().addAll(districtListView, mapWrapper, analysisView);
+
+        // --- イベントハンドラ ---
+        // マップ切り替え時は mapView ではなく mapWrapper を表示制御する
+        listBtn.setOnAction(e -> switchView(districtListView, mapWrapper, analysisView));
+
+        mapBtn.setOnAction(e -> {
+            switchView(mapWrapper, districtListView, analysisView);
+            if(isSimulationMode) updateMapAnimation();
+        });
+
+        chartBtn.setOnAction(e -> {
+            switchView(analysisView, districtListView, mapWrapper);
+            if(isSimulationMode) analysisView.updateData(data.getParties());
+        });
+
+        // 実行中にもう一度押すと中止 (開票速報中なら最終結果へ飛ばす)
+        actionButton.setOnAction(e -> {
+            if (runningTask != null) {
+                runningTask.cancel();
+            } else if (liveCount != null) {
+                liveCount.finishNow();
+            } else {
+                startSimulation();
+            }
+        });
+
+        Button backBtn = new Button("タイトルへ戻る");
+        backBtn.getStyleClass().add("back-button");
+        backBtn.setOnAction(e -> {
+            close();
+            onBackAction.run();
+        });
+
+        root.getChildren().addAll(header, contentStack, backBtn);
+        return root;
+    }
+    // 例: 全政党の組み合わせで協力度を表示する
+    public void printCoalitionMatrix(List<Party> parties) {
+        System.out.println("--- 政党間 協力度マトリクス ---");
+        CooperationMatrix coop = data.getCooperationMatrix();
+
+        for (Party p1 : parties) {
+            for (Party p2 : parties) {
+                if (p1 == p2) continue; // 自分自身はスキップ
+
+                double score = coop.get(p1, p2);
+
+                // 協力度が70%以上なら「連立の可能性あり」
+                if (score >= 70.0) {
+                    System.out.printf("🤝 %s と %s は仲が良いです (親和性: %.1f%%)\n",
+                            p1.getName(), p2.getName(), score);
+                } else if (score <= 30.0) {
+                    System.out.printf("⚔️ %s と %s は対立しています (親和性: %.1f%%)\n",
+                            p1.getName(), p2.getName(), score);
+                }
+            }
+        }
+    }
+
+    private void switchView(javafx.scene.Node show, javafx.scene.Node... hides) {
+        show.setVisible(true);
+        for(javafx.scene.Node h : hides) h.setVisible(false);
+    }
+
+    // 1回分の選挙をバックグラウンドで実行し、終わったら結果をまとめて画面に反映する
+    private void startSimulation() {
+        SimulationTask task = new SimulationTask(engine, data, simulationContext, runCount++);
+        runningTask = task;
+        progressBar.progressProperty().bind(task.progressProperty());
+        progressBar.setVisible(true);
+        actionButton.setText("中止");
+
+        task.setOnSucceeded(e -> {
+            finishSimulation();
+            if (closed) return; // 戻るボタンより先に終わっていた場合
+            ElectionSnapshot snapshot = task.getValue();
+            recorder.record(snapshot);
+            if (liveCheck.isSelected()) {
+                startLiveCount(snapshot);
+            } else {
+                snapshot.applyTo(data);
+                showFinalResults();
+            }
+        });
+        task.setOnCancelled(e -> {
+            finishSimulation();
+            actionButton.setText("一斉投票を実行");
+        });
+        task.setOnFailed(e -> {
+            finishSimulation();
+            task.getException().printStackTrace();
+            actionButton.setText("一斉投票を実行");
+        });
+        SIMULATION_EXECUTOR.execute(task);
+    }
+
+    // 多数回の試行で政権の形の頻度を集計する (シードは画面のシードから導くので再現できる)
+    private void startMonteCarlo(int trials) {
+        SimulationContext context = new SimulationContext(
+                SimulationContext.mix64(simulationContext.getSeed() + monteCarloCount++));
+        MonteCarloTask task = new MonteCarloTask(engine, trials, context);
+        monteCarloTask = task;
+        analysisView.monteCarloStarted(task);
+        task.setOnSucceeded(e -> {
+            monteCarloTask = null;
+            analysisView.monteCarloFinished(task.getValue());
+        });
+        task.setOnCancelled(e -> {
+            monteCarloTask = null;
+            analysisView.monteCarloFinished(null);
+        });
+        task.setOnFailed(e -> {
+            monteCarloTask = null;
+            task.getException().printStackTrace();
+            analysisView.monteCarloFinished(null);
+        });
+        MONTE_CARLO_EXECUTOR.execute(task);
+    }
+
+    // タイトルへ戻るときに実行中の処理を止める (止める前に終わっていた結果は closed を見て捨てる)
+    private void close() {
+        closed = true;
+        if (runningTask != null) runningTask.cancel();
+        if (liveCount != null) {
+            liveCount.stop();
+            liveCount = null;
+        }
+        if (monteCarloTask != null) monteCarloTask.cancel();
+    }
+
+    private static ExecutorService daemonExecutor(String name) {
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private void finishSimulation() {
+        runningTask = null;
+        progressBar.progressProperty().unbind();
+        progressBar.setVisible(false);
+    }
+
+    private void showFinalResults() {
+        districtListView.refresh();
+        if (mapWrapper.isVisible()) updateMapAnimation();
+        if (analysisView.isVisible()) analysisView.updateData(data.getParties());
+
+        actionButton.setDisable(true);
+        actionButton.setText("投票終了");
+    }
+
+    // 確定した結果を開票速報として少しずつ表示する
+    private void startLiveCount(ElectionSnapshot snapshot) {
+        actionButton.setText("結果へスキップ");
+        liveCount = new LiveCount(data, snapshot, this::onLiveFrame, () -> {
+            liveCount = null;
+            showFinalResults();
+        });
+        liveCount.start();
+        onLiveFrame();
+    }
+
+    // 開票速報の1フレーム分 (LiveCount がそのフレームの報をすべて反映した後に1回だけ呼ぶ)
+    private void onLiveFrame() {
+        districtListView.refresh();
+        if (mapWrapper.isVisible()) updateMap(false);
+        long now = System.nanoTime();
+        if (analysisView.isVisible() && now - lastAnalysisUpdate >= ANALYSIS_INTERVAL_NANOS) {
+            analysisView.updateSeats(data.getParties());
+            lastAnalysisUpdate = now;
+        }
+    }
+
+    private void updateMapAnimation() {
+        updateMap(true);
+    }
+
+    private void updateMap(boolean animate) {
+        ElectionTable table = data.getTable();
+        int prefCount = ElectionData.getPrefectureCount();
+        int partyCount = table.getPartyCount();
+        int[] votes = table.getVotes();
+        int[] candidateParty = table.getCandidateParty();
+
+        // 選挙区番号 × 政党番号 の当選者を 都道府県番号 × 政党番号 ごとの当選者数にまとめる
+        int[] districtSeats = new int[table.getDistrictCount() * partyCount];
+        for (int d = 0; d < table.getDistrictCount(); d++) {
+            int w = table.getWinner(d, votes);
+            if (w < 0 || votes[w] == 0) continue; // 開票前の選挙区
+            districtSeats[d * partyCount + candidateParty[w]]++;
+        }
+        int[] counts = new int[prefCount * partyCount];
+        data.getMunicipalityTable().toPrefectures(districtSeats, partyCount, counts);
+
+        // 都道府県ごとに最多議席の政党
+        String[] prefWinners = new String[prefCount];
+        int[] prefSeats = new int[prefCount];
+        for (int pref = 0; pref < prefCount; pref++) {
+            int base = pref * partyCount;
+            int top = -1;
+            for (int p = 0; p < partyCount; p++) {
+                if (counts[base + p] > 0 && (top < 0 || counts[base + p] > counts[base + top])) top = p;
+            }
+            if (top >= 0) {
+                prefWinners[pref] = table.getParty(top).getName();
+                prefSeats[pref] = counts[base + top];
+            }
+        }
+        if (animate) {
+            mapView.animateResults(prefWinners, prefSeats);
+        } else {
+            mapView.showResults(prefWinners, prefSeats);
+        }
+    }
+}
\ No newline at end of file
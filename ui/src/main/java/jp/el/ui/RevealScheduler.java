@@ -0,0 +1,60 @@
+package jp.el.ui;
+
+import javafx.animation.AnimationTimer;
+
+// 地図の結果アニメーション (図形を決まった順番に一定間隔で塗っていく)
+// 図形ごとに KeyFrame を作る代わりに AnimationTimer 1本で動かし、
+// そのフレームまでに時刻が来た図形をまとめて反映してから1回だけ描画側に知らせる。
+class RevealScheduler {
+    interface Target {
+        void reveal(int shape); // 図形を結果の色・ラベルにする
+        void frameDone();       // そのフレームの反映が終わった (Canvas ならここで描き直す)
+    }
+
+    private final long intervalNanos;
+    private final Target target;
+    private int[] order = new int[0]; // 塗る順番 (図形番号)
+    private int count;
+    private int revealed;
+    private long start;
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            step(now);
+        }
+    };
+
+    RevealScheduler(long intervalNanos, Target target) {
+        this.intervalNanos = intervalNanos;
+        this.target = target;
+    }
+
+    // 作業用の順番配列 (呼び出し側が先頭 count 件を埋めて start に渡す。毎回の確保を避けるため使い回す)
+    int[] buffer(int size) {
+        if (order.length < size) order = new int[size];
+        return order;
+    }
+
+    // 前回のアニメーションは途中でも打ち切り、最初の図形はすぐに塗る
+    void start(int count) {
+        timer.stop();
+        this.count = count;
+        this.revealed = 0;
+        this.start = -1;
+        if (count > 0) timer.start();
+    }
+
+    void stop() {
+        timer.stop();
+    }
+
+    private void step(long now) {
+        if (start < 0) start = now;
+        int due = (int) Math.min(count, (now - start) / intervalNanos + 1);
+        if (due == revealed) return;
+        for (; revealed < due; revealed++) target.reveal(order[revealed]);
+        target.frameDone();
+        if (revealed == count) timer.stop();
+    }
+}
@@ -0,0 +1,45 @@
+package jp.el.ui;
+
+import javafx.concurrent.Task;
+import jp.el.ElectionData;
+import jp.el.ElectionSnapshot;
+import jp.el.ElectionTable;
+import jp.el.SimulationContext;
+import jp.el.SimulationEngine;
+
+// 「一斉投票を実行」をFXスレッドの外で行うタスク
+// 票は表示用の配列ではなく自前のバッファに書き、完了時に ElectionSnapshot として返す。
+// 画面への反映は呼び出し側が成功時 (FXスレッド) に snapshot.applyTo で行う。
+public class SimulationTask extends Task<ElectionSnapshot> {
+    private final SimulationEngine engine;
+    private final ElectionTable table;
+    private final SimulationContext context;
+    private final int trial;
+
+    public SimulationTask(SimulationEngine engine, ElectionData data, SimulationContext context, int trial) {
+        this.engine = engine;
+        this.table = data.getTable();
+        this.context = context;
+        this.trial = trial;
+        updateTitle("一斉投票");
+    }
+
+    @Override
+    protected ElectionSnapshot call() {
+        int[] votes = table.newVoteBuffer();
+        int[] seats = new int[table.getPartyCount()];
+        int[] proportionalSeats = new int[table.getPartyCount()];
+        engine.runElection(context.trialRandom(trial), votes, seats, proportionalSeats, new SimulationEngine.Monitor() {
+            @Override
+            public boolean isCancelled() {
+                return SimulationTask.this.isCancelled();
+            }
+
+            @Override
+            public void progress(long done, long total) {
+                updateProgress(done, total);
+            }
+        });
+        return new ElectionSnapshot(context.getSeed(), trial, votes, seats, proportionalSeats);
+    }
+}
@@ -1,4 +1,4 @@
-package jp.el;
+package jp.el.ui;
 
 import javafx.geometry.Pos;
 import javafx.scene.Parent;
@@ -0,0 +1,99 @@
+package jp.el.ui;
+
+import jp.el.ElectionData;
+import jp.el.ElectionSnapshot;
+import jp.el.TrialStore;
+import jp.el.TrialStoreWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// 「一斉投票を実行」の結果を TrialStore に追記する (アプリ全体で1つ。ElectionApp が持ち、終了時に close する)
+// ファイルは最初の記録のときに開き、書き込みはすべて専用の1本のスレッドで行う (投票やモンテカルロを待たせない)。
+// 1回ごとにブロックを書くと集計部分のほうが大きくなるので、FLUSH_DELAY_SECONDS の間の結果をまとめて書き出す。
+public class TrialRecorder {
+    private static final long FLUSH_DELAY_SECONDS = 10;
+    private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+    private final ElectionData data;
+    private final ScheduledExecutorService executor;
+
+    // 以下は executor のスレッドでだけ触る
+    private TrialStoreWriter writer;
+    private boolean failed; // 開けなかった・書けなかったら以後は保存しない
+    private ScheduledFuture<?> pendingFlush;
+
+    public TrialRecorder(ElectionData data) {
+        this.data = data;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "trial-recorder");
+            t.setDaemon(true); // 終了時の書き出しは close で待つ
+            return t;
+        });
+    }
+
+    // FXスレッドから呼んでよい
+    public void record(ElectionSnapshot snapshot) {
+        executor.execute(() -> append(snapshot));
+    }
+
+    // 残りを書き出して閉じる (Application.stop から呼ぶ。書き込み中の分が終わるまで少しだけ待つ)
+    public void close() {
+        try {
+            executor.submit(() -> {
+                if (pendingFlush != null) pendingFlush.cancel(false);
+                if (writer != null) {
+                    try {
+                        writer.close();
+                    } catch (IOException e) {
+                        System.out.println("試行結果を保存できませんでした: " + e.getMessage());
+                    }
+                    writer = null;
+                }
+                failed = true;
+            }).get(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.out.println("試行結果の保存を終えられませんでした: " + e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void append(ElectionSnapshot snapshot) {
+        if (failed) return;
+        try {
+            if (writer == null) {
+                Path path = TrialStore.defaultPath(data.getTable());
+                if (path.getParent() != null) Files.createDirectories(path.getParent());
+                writer = TrialStoreWriter.open(path, data.getTable());
+            }
+            writer.append(snapshot, data.getTable());
+            if (pendingFlush == null) {
+                pendingFlush = executor.schedule(this::flush, FLUSH_DELAY_SECONDS, TimeUnit.SECONDS);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("試行結果を保存できませんでした: " + e.getMessage());
+            failed = true;
+        }
+    }
+
+    private void flush() {
+        pendingFlush = null;
+        if (writer == null) return;
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            System.out.println("試行結果を保存できませんでした: " + e.getMessage());
+            failed = true;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+module jp.el.ui {
+    requires javafx.controls;
+    requires javafx.fxml;
+    requires jp.el;
+
+    opens jp.el.ui to javafx.fxml;
+    exports jp.el.ui;
+}